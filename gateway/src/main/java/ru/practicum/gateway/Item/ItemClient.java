@@ -4,16 +4,21 @@ import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.client.ClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
 import org.springframework.web.util.DefaultUriBuilderFactory;
 import ru.practicum.gateway.Item.dto.ItemDto;
 import ru.practicum.gateway.client.BaseClient;
+import ru.practicum.gateway.client.GatewayResponseCache;
+import ru.practicum.gateway.client.RequestCoalescer;
+import ru.practicum.gateway.client.UpstreamGuards;
 import ru.practicum.gateway.commentDto.CommentDto;
 import ru.practicum.gateway.Item.dto.ItemCreateDto;
 
-
+import java.io.InputStream;
+import java.util.List;
 import java.util.Map;
 
 @Service
@@ -21,12 +26,18 @@ public class ItemClient extends BaseClient {
     private static final String API_PREFIX = "/items";
 
     @Autowired
-    public ItemClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
+    public ItemClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder,
+                      ClientHttpRequestFactory serverRequestFactory, UpstreamGuards upstreamGuards,
+                      RequestCoalescer requestCoalescer, GatewayResponseCache responseCache) {
         super(
                 builder
                         .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(() -> new HttpComponentsClientHttpRequestFactory())
-                        .build()
+                        .requestFactory(() -> serverRequestFactory)
+                        .build(),
+                upstreamGuards.forClient("items"),
+                upstreamGuards.forClient("item-uploads"),
+                requestCoalescer,
+                responseCache
         );
     }
 
@@ -34,23 +45,37 @@ public class ItemClient extends BaseClient {
         return post("", userId, itemDto);
     }
 
+    public ResponseEntity<Object> addItems(long userId, MediaType contentType, InputStream items) {
+        return postStream("/bulk", userId, contentType, items);
+    }
+
     public ResponseEntity<Object> updateItem(long userId, long itemId, ItemCreateDto updateDto) {
         return patch("/" + itemId, userId, updateDto);
     }
 
     public ResponseEntity<Object> getItem(long itemId, long userId) {
-        return get("/" + itemId, userId);
+        return getCached("/" + itemId, userId, null, true);
     }
 
-    public ResponseEntity<Object> getOwnerItems(long userId) {
-        return get("", userId);
+    public ResponseEntity<Object> getItems(long userId, List<Long> itemIds) {
+        return getByIds("", userId, itemIds);
+    }
+
+    public ResponseEntity<Object> getOwnerItems(long userId, int from, int size) {
+        Map<String, Object> parameters = Map.of(
+                "from", from,
+                "size", size
+        );
+        return get("?from={from}&size={size}", userId, parameters);
     }
 
-    public ResponseEntity<Object> searchItems(String text) {
+    public ResponseEntity<Object> searchItems(String text, int from, int size) {
         Map<String, Object> parameters = Map.of(
-                "text", text
+                "text", text,
+                "from", from,
+                "size", size
         );
-        return get("/search?text={text}", null, parameters);
+        return getCached("/search?text={text}&from={from}&size={size}", null, parameters, false);
     }
 
     public ResponseEntity<Object> addComment(long userId, long itemId, @Valid CommentDto commentDto) {
@@ -2,15 +2,23 @@ package ru.practicum.gateway.Item;
 
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.PositiveOrZero;
+import jakarta.validation.constraints.Size;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 import ru.practicum.gateway.Item.dto.ItemDto;
+import ru.practicum.gateway.client.BaseClient;
 import ru.practicum.gateway.commentDto.CommentDto;
 import ru.practicum.gateway.Item.dto.ItemCreateDto;
 
+import java.io.InputStream;
 import java.util.Collections;
+import java.util.List;
 
 @RestController
 @RequestMapping("/items")
@@ -26,6 +34,18 @@ public class ItemController {
         return itemClient.addItem(userId, itemDto);
     }
 
+    /**
+     * Relays the upload to the server without parsing it; the server validates each element and
+     * reports per row.
+     */
+    @PostMapping(value = "/bulk", consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public ResponseEntity<Object> addItems(
+            @RequestHeader("X-Sharer-User-Id") long userId,
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) MediaType contentType,
+            InputStream items) {
+        return itemClient.addItems(userId, contentType, items);
+    }
+
     @PatchMapping("/{itemId}")
     public ResponseEntity<Object> updateItem(
             @RequestHeader("X-Sharer-User-Id") long userId,
@@ -41,19 +61,30 @@ public class ItemController {
         return itemClient.getItem(itemId, userId);
     }
 
+    @GetMapping(params = "ids")
+    public ResponseEntity<Object> getItems(
+            @RequestHeader("X-Sharer-User-Id") long userId,
+            @RequestParam @Size(max = BaseClient.MAX_BATCH_IDS) List<Long> ids) {
+        return itemClient.getItems(userId, ids);
+    }
+
     @GetMapping
     public ResponseEntity<Object> getOwnerItems(
-            @RequestHeader("X-Sharer-User-Id") long userId) {
-        return itemClient.getOwnerItems(userId);
+            @RequestHeader("X-Sharer-User-Id") long userId,
+            @RequestParam(defaultValue = "0") @PositiveOrZero int from,
+            @RequestParam(defaultValue = "10") @Positive int size) {
+        return itemClient.getOwnerItems(userId, from, size);
     }
 
     @GetMapping("/search")
     public ResponseEntity<Object> searchItems(
-            @RequestParam @NotBlank String text) {
+            @RequestParam @NotBlank String text,
+            @RequestParam(defaultValue = "0") @PositiveOrZero int from,
+            @RequestParam(defaultValue = "10") @Positive int size) {
         if (text.isBlank()) {
             return ResponseEntity.ok(Collections.emptyList());
         }
-        return itemClient.searchItems(text);
+        return itemClient.searchItems(text, from, size);
     }
 
     @PostMapping("/{itemId}/comment")
@@ -4,12 +4,15 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.client.ClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
 import org.springframework.web.util.DefaultUriBuilderFactory;
 import ru.practicum.gateway.booking.dto.BookingRequestDto;
 import ru.practicum.gateway.client.BaseClient;
+import ru.practicum.gateway.client.UpstreamGuards;
 
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 @Service
@@ -17,12 +20,16 @@ public class BookingClient extends BaseClient {
     private static final String API_PREFIX = "/bookings";
 
     @Autowired
-    public BookingClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
+    public BookingClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder,
+                         ClientHttpRequestFactory serverRequestFactory, UpstreamGuards upstreamGuards) {
         super(
                 builder
                         .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(() -> new HttpComponentsClientHttpRequestFactory())
-                        .build()
+                        .requestFactory(() -> serverRequestFactory)
+                        .build(),
+                upstreamGuards.forClient("bookings"),
+                null,
+                null
         );
     }
 
@@ -41,21 +48,40 @@ public class BookingClient extends BaseClient {
         return get("/" + bookingId, userId);
     }
 
-    public ResponseEntity<Object> getUserBookings(long userId, String state, int from, int size) {
-        Map<String, Object> parameters = Map.of(
-                "state", state,
-                "from", from,
-                "size", size
-        );
-        return get("?state={state}&from={from}&size={size}", userId, parameters);
+    public ResponseEntity<Object> getBookingsByIds(long userId, List<Long> bookingIds) {
+        return getByIds("", userId, bookingIds);
     }
 
-    public ResponseEntity<Object> getOwnerBookings(long userId, String state, int from, int size) {
+    public ResponseEntity<Object> getUserBookings(long userId, String state, int from, int size, String cursor) {
+        return get(bookingListQuery(cursor), userId, bookingListParameters(state, from, size, cursor));
+    }
+
+    public ResponseEntity<Object> getOwnerBookings(long userId, String state, int from, int size, String cursor) {
+        return get("/owner" + bookingListQuery(cursor), userId, bookingListParameters(state, from, size, cursor));
+    }
+
+    public ResponseEntity<Object> exportOwnerBookings(long userId, String state, String format) {
         Map<String, Object> parameters = Map.of(
                 "state", state,
-                "from", from,
-                "size", size
+                "format", format
         );
-        return get("/owner?state={state}&from={from}&size={size}", userId, parameters);
+        return get("/owner/export?state={state}&format={format}", userId, parameters);
+    }
+
+    private static String bookingListQuery(String cursor) {
+        return cursor == null
+                ? "?state={state}&from={from}&size={size}"
+                : "?state={state}&from={from}&size={size}&cursor={cursor}";
+    }
+
+    private static Map<String, Object> bookingListParameters(String state, int from, int size, String cursor) {
+        Map<String, Object> parameters = new HashMap<>();
+        parameters.put("state", state);
+        parameters.put("from", from);
+        parameters.put("size", size);
+        if (cursor != null) {
+            parameters.put("cursor", cursor);
+        }
+        return parameters;
     }
-}
\ No newline at end of file
+}
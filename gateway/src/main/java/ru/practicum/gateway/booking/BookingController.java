@@ -1,16 +1,21 @@
 package ru.practicum.gateway.booking;
 
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Pattern;
 import jakarta.validation.constraints.Positive;
 import jakarta.validation.constraints.PositiveOrZero;
+import jakarta.validation.constraints.Size;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 import ru.practicum.gateway.booking.dto.BookingRequestDto;
+import ru.practicum.gateway.client.BaseClient;
 import ru.practicum.gateway.exception.InvalidDateTimeException;
 
 import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Locale;
 
 @RestController
 @RequestMapping(path = "/bookings")
@@ -53,13 +58,21 @@ public class BookingController {
         return bookingClient.getBooking(userId, bookingId);
     }
 
+    @GetMapping(params = "ids")
+    public ResponseEntity<Object> getBookingsByIds(
+            @RequestHeader("X-Sharer-User-Id") long userId,
+            @RequestParam @Size(max = BaseClient.MAX_BATCH_IDS) List<Long> ids) {
+        return bookingClient.getBookingsByIds(userId, ids);
+    }
+
     @GetMapping
     public ResponseEntity<Object> getUserBookings(
             @RequestHeader("X-Sharer-User-Id") long userId,
             @RequestParam(defaultValue = "ALL") String state,
             @RequestParam(defaultValue = "0") @PositiveOrZero int from,
-            @RequestParam(defaultValue = "10") @Positive int size) {
-        return bookingClient.getUserBookings(userId, state, from, size);
+            @RequestParam(defaultValue = "10") @Positive int size,
+            @RequestParam(required = false) String cursor) {
+        return bookingClient.getUserBookings(userId, state, from, size, cursor);
     }
 
     @GetMapping("/owner")
@@ -67,7 +80,16 @@ public class BookingController {
             @RequestHeader("X-Sharer-User-Id") long userId,
             @RequestParam(defaultValue = "ALL") String state,
             @RequestParam(defaultValue = "0") @PositiveOrZero int from,
-            @RequestParam(defaultValue = "10") @Positive int size) {
-        return bookingClient.getOwnerBookings(userId, state, from, size);
+            @RequestParam(defaultValue = "10") @Positive int size,
+            @RequestParam(required = false) String cursor) {
+        return bookingClient.getOwnerBookings(userId, state, from, size, cursor);
+    }
+
+    @GetMapping("/owner/export")
+    public ResponseEntity<Object> exportOwnerBookings(
+            @RequestHeader("X-Sharer-User-Id") long userId,
+            @RequestParam(defaultValue = "ALL") String state,
+            @RequestParam(defaultValue = "NDJSON") @Pattern(regexp = "(?i)ndjson|csv") String format) {
+        return bookingClient.exportOwnerBookings(userId, state, format.toUpperCase(Locale.ROOT));
     }
-}
\ No newline at end of file
+}
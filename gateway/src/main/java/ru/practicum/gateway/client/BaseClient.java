@@ -1,20 +1,75 @@
 package ru.practicum.gateway.client;
 
+import org.springframework.core.io.InputStreamResource;
+import org.springframework.core.io.Resource;
 import org.springframework.http.*;
+import org.springframework.http.client.ClientHttpResponse;
 import org.springframework.lang.Nullable;
-import org.springframework.web.client.HttpStatusCodeException;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestClient;
 import org.springframework.web.client.RestTemplate;
 
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
 
 public class BaseClient {
     public static final String headerOfUserId = "X-Sharer-User-Id";
+    /**
+     * Ids a {@code ?ids=} multi-get may ask for; the server enforces the same limit.
+     */
+    public static final int MAX_BATCH_IDS = 100;
+
+    /**
+     * Headers that describe the gateway-to-server connection rather than the response; the servlet
+     * container sets its own.
+     */
+    private static final Set<String> HOP_BY_HOP_HEADERS = caseInsensitive(HttpHeaders.CONNECTION, "Keep-Alive",
+            HttpHeaders.TRANSFER_ENCODING, HttpHeaders.CONTENT_LENGTH, HttpHeaders.UPGRADE);
 
     protected final RestTemplate rest;
+    private final RestClient restClient;
+    private final String baseUri;
+    @Nullable
+    private final UpstreamGuard guard;
+    @Nullable
+    private final UpstreamGuard uploadGuard;
+    @Nullable
+    private final RequestCoalescer coalescer;
+    @Nullable
+    private final GatewayResponseCache responseCache;
 
     public BaseClient(RestTemplate rest) {
+        this(rest, null, null, null);
+    }
+
+    public BaseClient(RestTemplate rest, @Nullable UpstreamGuard guard, @Nullable RequestCoalescer coalescer,
+                      @Nullable GatewayResponseCache responseCache) {
+        this(rest, guard, guard, coalescer, responseCache);
+    }
+
+    /**
+     * @param uploadGuard guards {@link #postStream} uploads, so that long uploads do not take the
+     *                    slots of the client's other calls
+     */
+    public BaseClient(RestTemplate rest, @Nullable UpstreamGuard guard, @Nullable UpstreamGuard uploadGuard,
+                      @Nullable RequestCoalescer coalescer, @Nullable GatewayResponseCache responseCache) {
         this.rest = rest;
+        this.restClient = RestClient.create(rest);
+        this.baseUri = rest.getUriTemplateHandler().expand("").toString();
+        this.guard = guard;
+        this.uploadGuard = uploadGuard;
+        this.coalescer = coalescer;
+        this.responseCache = responseCache;
     }
 
     protected ResponseEntity<Object> get(String path) {
@@ -29,6 +84,45 @@ public class BaseClient {
         return makeAndSendRequest(HttpMethod.GET, path, userId, parameters, null);
     }
 
+    /**
+     * Multi-get of {@code path?ids=...}: one server call for the whole batch.
+     */
+    protected ResponseEntity<Object> getByIds(String path, @Nullable Long userId, Collection<Long> ids) {
+        String joined = ids.stream()
+                .map(String::valueOf)
+                .collect(Collectors.joining(","));
+        return get(path + "?ids={ids}", userId, Map.of("ids", joined));
+    }
+
+    /**
+     * GET that joins an identical call already in flight (same path, parameters and user) instead of
+     * sending another one. Only for endpoints that are safe to answer with a shared, buffered response.
+     */
+    protected ResponseEntity<Object> getCoalesced(String path, Long userId, @Nullable Map<String, Object> parameters) {
+        if (coalescer == null) {
+            return get(path, userId, parameters);
+        }
+        return coalescer.execute(expand(path, parameters) + " " + userId,
+                () -> buffered(get(path, userId, parameters)));
+    }
+
+    /**
+     * Coalesced GET revalidated against {@link GatewayResponseCache}: a cached body is reused when
+     * the server answers its {@code ETag} with 304. Responses that depend on the caller go under a
+     * per-user key; the others are shared by all users.
+     */
+    protected ResponseEntity<Object> getCached(String path, Long userId, @Nullable Map<String, Object> parameters,
+                                               boolean perUser) {
+        GatewayResponseCache cache = responseCache;
+        if (cache == null || !cache.isEnabled()) {
+            return getCoalesced(path, userId, parameters);
+        }
+        String uri = expand(path, parameters);
+        String cacheKey = perUser ? uri + " " + userId : uri;
+        Supplier<ResponseEntity<Object>> call = () -> revalidate(cache, cacheKey, path, userId, parameters);
+        return coalescer != null ? coalescer.execute(uri + " " + userId, call) : call.get();
+    }
+
     protected <T> ResponseEntity<Object> post(String path, T body) {
         return post(path, null, null, body);
     }
@@ -41,6 +135,17 @@ public class BaseClient {
         return makeAndSendRequest(HttpMethod.POST, path, userId, parameters, body);
     }
 
+    /**
+     * POST whose body is copied to the server as it is read from {@code body}, for uploads too large
+     * to buffer in the gateway. Runs under the upload guard and is never counted as a slow call.
+     */
+    protected ResponseEntity<Object> postStream(String path, long userId, MediaType contentType, InputStream body) {
+        HttpHeaders headers = defaultHeaders(userId);
+        headers.setContentType(contentType);
+        return makeAndSendRequest(uploadGuard, false, HttpMethod.POST, path, headers, null,
+                new InputStreamResource(body));
+    }
+
     protected <T> ResponseEntity<Object> put(String path, long userId, T body) {
         return put(path, userId, null, body);
     }
@@ -77,20 +182,68 @@ public class BaseClient {
         return makeAndSendRequest(HttpMethod.DELETE, path, userId, parameters, null);
     }
 
+    /**
+     * Relays the server's status and headers and streams its body to the caller without parsing it.
+     * The copy blocks on the caller's socket, so a slow reader holds back reads from the server
+     * instead of the gateway buffering the whole body; the pooled connection and the bulkhead slot are
+     * released once the body has been written.
+     */
     private <T> ResponseEntity<Object> makeAndSendRequest(HttpMethod method, String path, Long userId, @Nullable Map<String, Object> parameters, @Nullable T body) {
-        HttpEntity<T> requestEntity = new HttpEntity<>(body, defaultHeaders(userId));
-
-        ResponseEntity<Object> shareitServerResponse;
-        try {
-            if (parameters != null) {
-                shareitServerResponse = rest.exchange(path, method, requestEntity, Object.class, parameters);
-            } else {
-                shareitServerResponse = rest.exchange(path, method, requestEntity, Object.class);
-            }
-        } catch (HttpStatusCodeException e) {
-            return ResponseEntity.status(e.getStatusCode()).body(e.getResponseBodyAsByteArray());
+        return makeAndSendRequest(method, path, defaultHeaders(userId), parameters, body);
+    }
+
+    private <T> ResponseEntity<Object> makeAndSendRequest(HttpMethod method, String path, HttpHeaders requestHeaders, @Nullable Map<String, Object> parameters, @Nullable T body) {
+        return makeAndSendRequest(guard, true, method, path, requestHeaders, parameters, body);
+    }
+
+    private <T> ResponseEntity<Object> makeAndSendRequest(@Nullable UpstreamGuard guard, boolean timed, HttpMethod method, String path, HttpHeaders requestHeaders, @Nullable Map<String, Object> parameters, @Nullable T body) {
+        RestClient.RequestBodySpec request = (parameters != null
+                ? restClient.method(method).uri(path, parameters)
+                : restClient.method(method).uri(path))
+                .headers(headers -> headers.addAll(requestHeaders));
+        if (body != null) {
+            request.body(body);
         }
-        return prepareGatewayResponse(shareitServerResponse);
+        Function<Runnable, ResponseEntity<Object>> exchange = releaseSlot -> request.exchange(
+                (clientRequest, serverResponse) -> passthrough(serverResponse, releaseSlot), false);
+        ResponseEntity<Object> response = guard != null
+                ? guard.callHoldingSlot(exchange,
+                        serverResponse -> serverResponse.getStatusCode().is5xxServerError(), timed)
+                : exchange.apply(() -> { });
+        if (responseCache != null && method != HttpMethod.GET && response.getStatusCode().is2xxSuccessful()) {
+            responseCache.invalidate(baseUri);
+        }
+        return response;
+    }
+
+    private ResponseEntity<Object> revalidate(GatewayResponseCache cache, String cacheKey, String path, Long userId,
+                                              @Nullable Map<String, Object> parameters) {
+        ResponseEntity<Object> cached = cache.get(cacheKey);
+        HttpHeaders headers = defaultHeaders(userId);
+        if (cached != null && cached.getHeaders().getETag() != null) {
+            headers.setIfNoneMatch(cached.getHeaders().getETag());
+        }
+
+        ResponseEntity<Object> response = buffered(makeAndSendRequest(HttpMethod.GET, path, headers, parameters, null));
+        if (cached != null && response.getStatusCode() == HttpStatus.NOT_MODIFIED) {
+            cache.recordHit();
+            return cached;
+        }
+
+        cache.recordMiss();
+        if (response.getStatusCode() == HttpStatus.OK && response.getHeaders().getETag() != null) {
+            cache.put(cacheKey, response);
+        } else {
+            cache.remove(cacheKey);
+        }
+        return response;
+    }
+
+    private String expand(String path, @Nullable Map<String, Object> parameters) {
+        URI uri = parameters != null
+                ? rest.getUriTemplateHandler().expand(path, parameters)
+                : rest.getUriTemplateHandler().expand(path);
+        return uri.toString();
     }
 
     protected HttpHeaders defaultHeaders(Long userId) {
@@ -103,17 +256,53 @@ public class BaseClient {
         return headers;
     }
 
-    private static ResponseEntity<Object> prepareGatewayResponse(ResponseEntity<Object> response) {
-        if (response.getStatusCode().is2xxSuccessful()) {
-            return response;
+    private static ResponseEntity<Object> passthrough(ClientHttpResponse response, Runnable onClose)
+            throws IOException {
+        HttpHeaders headers = new HttpHeaders();
+        response.getHeaders().forEach((name, values) -> {
+            if (!HOP_BY_HOP_HEADERS.contains(name)) {
+                headers.put(name, values);
+            }
+        });
+
+        ResponseEntity.BodyBuilder responseBuilder = ResponseEntity.status(response.getStatusCode()).headers(headers);
+
+        if (response.getStatusCode() == HttpStatus.NO_CONTENT || response.getStatusCode() == HttpStatus.NOT_MODIFIED
+                || response.getHeaders().getContentLength() == 0) {
+            response.close();
+            onClose.run();
+            return responseBuilder.build();
         }
 
-        ResponseEntity.BodyBuilder responseBuilder = ResponseEntity.status(response.getStatusCode());
+        InputStream body = new FilterInputStream(response.getBody()) {
+            @Override
+            public void close() {
+                try {
+                    response.close();
+                } finally {
+                    onClose.run();
+                }
+            }
+        };
+        return responseBuilder.body(new InputStreamResource(body));
+    }
 
-        if (response.hasBody()) {
-            return responseBuilder.body(response.getBody());
+    private static ResponseEntity<Object> buffered(ResponseEntity<Object> response) {
+        if (!(response.getBody() instanceof Resource)) {
+            return response;
         }
+        try (InputStream body = ((Resource) response.getBody()).getInputStream()) {
+            return ResponseEntity.status(response.getStatusCode())
+                    .headers(response.getHeaders())
+                    .body(body.readAllBytes());
+        } catch (IOException e) {
+            throw new ResourceAccessException("I/O error reading server response: " + e.getMessage(), e);
+        }
+    }
 
-        return responseBuilder.build();
+    private static Set<String> caseInsensitive(String... names) {
+        Set<String> set = new TreeSet<>(String.CASE_INSENSITIVE_ORDER);
+        set.addAll(List.of(names));
+        return set;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,25 @@
+package ru.practicum.gateway.client;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.TreeMap;
+
+@Component
+@Endpoint(id = "circuitbreakers")
+public class CircuitBreakersEndpoint {
+    private final UpstreamGuards upstreamGuards;
+
+    public CircuitBreakersEndpoint(UpstreamGuards upstreamGuards) {
+        this.upstreamGuards = upstreamGuards;
+    }
+
+    @ReadOperation
+    public Map<String, Map<String, Object>> circuitBreakers() {
+        Map<String, Map<String, Object>> breakers = new TreeMap<>();
+        upstreamGuards.all().forEach((name, guard) -> breakers.put(name, guard.describe()));
+        return breakers;
+    }
+}
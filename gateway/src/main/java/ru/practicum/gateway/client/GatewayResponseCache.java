@@ -0,0 +1,84 @@
+package ru.practicum.gateway.client;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ResponseEntity;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Bounded LRU of buffered server responses that carry an {@code ETag}. Entries are never served
+ * without asking the server: {@link BaseClient} sends their tag in {@code If-None-Match} and reuses
+ * the body only on 304, so a stale entry costs a full response, never a wrong one.
+ */
+@Component
+public class GatewayResponseCache {
+    private static final String METRIC = "shareit.gateway.cache";
+
+    private final boolean enabled;
+    private final Map<String, ResponseEntity<Object>> entries;
+    private final Counter hits;
+    private final Counter misses;
+
+    public GatewayResponseCache(@Value("${shareit-server.cache.enabled:true}") boolean enabled,
+                                @Value("${shareit-server.cache.max-entries:1000}") int maxEntries,
+                                MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, ResponseEntity<Object>> eldest) {
+                return size() > maxEntries;
+            }
+        };
+        this.hits = Counter.builder(METRIC)
+                .description("Cached gateway GETs, by whether the server confirmed the cached body")
+                .tag("result", "hit")
+                .register(meterRegistry);
+        this.misses = Counter.builder(METRIC)
+                .description("Cached gateway GETs, by whether the server confirmed the cached body")
+                .tag("result", "miss")
+                .register(meterRegistry);
+        meterRegistry.gauge(METRIC + ".size", this, GatewayResponseCache::entryCount);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @Nullable
+    public synchronized ResponseEntity<Object> get(String key) {
+        return entries.get(key);
+    }
+
+    public synchronized void put(String key, ResponseEntity<Object> response) {
+        entries.put(key, response);
+    }
+
+    public synchronized void remove(String key) {
+        entries.remove(key);
+    }
+
+    /**
+     * Drops every entry whose key starts with {@code prefix}, e.g. all responses of one client
+     * after it changed something on the server.
+     */
+    public synchronized void invalidate(String prefix) {
+        entries.keySet().removeIf(key -> key.startsWith(prefix));
+    }
+
+    void recordHit() {
+        hits.increment();
+    }
+
+    void recordMiss() {
+        misses.increment();
+    }
+
+    private synchronized int entryCount() {
+        return entries.size();
+    }
+}
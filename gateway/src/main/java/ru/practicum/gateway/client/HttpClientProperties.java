@@ -0,0 +1,48 @@
+package ru.practicum.gateway.client;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Connection pool and timeouts of the HTTP client every gateway client shares to reach the server.
+ */
+@Data
+@ConfigurationProperties(prefix = "shareit-server.http")
+public class HttpClientProperties {
+    /**
+     * Upper bound on open connections across all routes.
+     */
+    private int maxConnections = 200;
+
+    /**
+     * Upper bound on open connections to one host; the gateway talks to a single server.
+     */
+    private int maxConnectionsPerRoute = 200;
+
+    private Duration connectTimeout = Duration.ofSeconds(2);
+
+    private Duration responseTimeout = Duration.ofSeconds(30);
+
+    /**
+     * How long a request waits for a pooled connection before failing instead of queueing forever.
+     */
+    private Duration connectionRequestTimeout = Duration.ofSeconds(2);
+
+    /**
+     * Keep-alive used when the server does not send a {@code Keep-Alive} header. Keep it below the
+     * server's idle timeout so the gateway does not reuse connections the server already closed.
+     */
+    private Duration keepAlive = Duration.ofSeconds(15);
+
+    /**
+     * Connections idle for longer are closed by a background evictor.
+     */
+    private Duration idleEviction = Duration.ofSeconds(10);
+
+    /**
+     * Pooled connections idle for longer are checked before reuse.
+     */
+    private Duration validateAfterInactivity = Duration.ofSeconds(2);
+}
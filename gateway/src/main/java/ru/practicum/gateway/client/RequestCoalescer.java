@@ -0,0 +1,82 @@
+package ru.practicum.gateway.client;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+
+/**
+ * Single-flight for idempotent server calls: while a call with a given key is in flight, later
+ * callers with the same key wait for its response instead of repeating it. Responses handed out
+ * here must be buffered, since every waiter gets the same body.
+ */
+@Component
+public class RequestCoalescer {
+    private static final String METRIC = "shareit.gateway.coalescing";
+
+    private final ConcurrentMap<String, CompletableFuture<ResponseEntity<Object>>> inFlight =
+            new ConcurrentHashMap<>();
+    private final boolean enabled;
+    private final Counter leaders;
+    private final Counter followers;
+
+    public RequestCoalescer(@Value("${shareit-server.coalescing.enabled:true}") boolean enabled,
+                            MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        this.leaders = Counter.builder(METRIC)
+                .description("Coalescable server calls, by whether the caller went upstream or waited")
+                .tag("role", "leader")
+                .register(meterRegistry);
+        this.followers = Counter.builder(METRIC)
+                .description("Coalescable server calls, by whether the caller went upstream or waited")
+                .tag("role", "follower")
+                .register(meterRegistry);
+        meterRegistry.gauge(METRIC + ".in-flight", inFlight, ConcurrentMap::size);
+    }
+
+    public ResponseEntity<Object> execute(String key, Supplier<ResponseEntity<Object>> call) {
+        if (!enabled) {
+            return call.get();
+        }
+
+        CompletableFuture<ResponseEntity<Object>> flight = new CompletableFuture<>();
+        CompletableFuture<ResponseEntity<Object>> leader = inFlight.putIfAbsent(key, flight);
+        if (leader != null) {
+            followers.increment();
+            return await(leader);
+        }
+
+        leaders.increment();
+        try {
+            ResponseEntity<Object> response = call.get();
+            flight.complete(response);
+            return response;
+        } catch (RuntimeException | Error e) {
+            flight.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, flight);
+        }
+    }
+
+    private static ResponseEntity<Object> await(CompletableFuture<ResponseEntity<Object>> flight) {
+        try {
+            return flight.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            if (e.getCause() instanceof Error) {
+                throw (Error) e.getCause();
+            }
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package ru.practicum.gateway.client;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Bulkhead and circuit breaker settings; every client gets its own instance of both.
+ */
+@Data
+@ConfigurationProperties(prefix = "shareit-server.resilience")
+public class ResilienceProperties {
+    /**
+     * Calls one client may have in flight to the server, counting a response until its body has been
+     * relayed to the caller.
+     */
+    private int maxConcurrentCalls = 50;
+
+    /**
+     * How long a call waits for a free slot before it is rejected with 503.
+     */
+    private Duration maxWait = Duration.ofMillis(100);
+
+    /**
+     * Number of most recent calls the failure rate is computed over.
+     */
+    private int slidingWindowSize = 20;
+
+    /**
+     * Calls the window must hold before the breaker may open.
+     */
+    private int minimumCalls = 10;
+
+    /**
+     * Failure rate, in percent, at which the breaker opens. 5xx responses, I/O errors and slow calls
+     * count as failures.
+     */
+    private int failureRateThreshold = 50;
+
+    private Duration slowCallThreshold = Duration.ofSeconds(5);
+
+    /**
+     * How long an open breaker rejects calls before letting probes through.
+     */
+    private Duration openDuration = Duration.ofSeconds(10);
+
+    /**
+     * Probes allowed while half-open; all of them must succeed to close the breaker.
+     */
+    private int halfOpenCalls = 3;
+}
@@ -0,0 +1,223 @@
+package ru.practicum.gateway.client;
+
+import ru.practicum.gateway.exception.UpstreamUnavailableException;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * Bulkhead and circuit breaker in front of one client's calls to the server. The bulkhead bounds
+ * the calls in flight so a slow endpoint cannot hold every request thread; the breaker opens when
+ * the failure rate over the last calls crosses the threshold, rejects calls while open, and after
+ * the open duration lets a few probes decide whether to close again.
+ */
+public class UpstreamGuard {
+    public enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    private enum Permission {
+        DENIED, CALL, PROBE
+    }
+
+    private final String name;
+    private final ResilienceProperties properties;
+    private final LongSupplier nanoTime;
+    private final Semaphore bulkhead;
+
+    private final boolean[] window;
+    private int windowNext;
+    private int windowCalls;
+    private int windowFailures;
+
+    private State state = State.CLOSED;
+    private long openedAt;
+    private int probesInFlight;
+    private int probeSuccesses;
+
+    public UpstreamGuard(String name, ResilienceProperties properties) {
+        this(name, properties, System::nanoTime);
+    }
+
+    UpstreamGuard(String name, ResilienceProperties properties, LongSupplier nanoTime) {
+        this.name = name;
+        this.properties = properties;
+        this.nanoTime = nanoTime;
+        this.bulkhead = new Semaphore(properties.getMaxConcurrentCalls());
+        this.window = new boolean[properties.getSlidingWindowSize()];
+    }
+
+    /**
+     * Runs {@code call} unless the bulkhead is full or the breaker is open, in which case it throws
+     * {@link UpstreamUnavailableException}. The outcome counts as a failure when the call throws,
+     * when {@code isFailure} accepts its result, or when it took longer than the slow-call threshold.
+     */
+    public <T> T call(Supplier<T> call, Predicate<T> isFailure) {
+        return call(call, isFailure, true);
+    }
+
+    /**
+     * Like {@link #call(Supplier, Predicate)}, but with {@code timed} false the call is never judged
+     * slow: for uploads, which last as long as the caller takes to send the body.
+     */
+    public <T> T call(Supplier<T> call, Predicate<T> isFailure, boolean timed) {
+        Runnable releaseSlot = acquireSlot();
+        try {
+            return guarded(call, isFailure, timed);
+        } finally {
+            releaseSlot.run();
+        }
+    }
+
+    /**
+     * Like {@link #call(Supplier, Predicate, boolean)}, but the bulkhead slot outlives the call: it is
+     * handed to {@code call} as an action that frees it, for results whose body is still being read
+     * when the call returns. The slot is freed here only if the call throws.
+     */
+    public <T> T callHoldingSlot(Function<Runnable, T> call, Predicate<T> isFailure, boolean timed) {
+        Runnable releaseSlot = acquireSlot();
+        try {
+            return guarded(() -> call.apply(releaseSlot), isFailure, timed);
+        } catch (RuntimeException | Error e) {
+            releaseSlot.run();
+            throw e;
+        }
+    }
+
+    public synchronized State getState() {
+        return currentState();
+    }
+
+    public synchronized Map<String, Object> describe() {
+        Map<String, Object> description = new LinkedHashMap<>();
+        description.put("state", currentState());
+        description.put("failureRate", windowCalls == 0 ? 0 : windowFailures * 100 / windowCalls);
+        description.put("bufferedCalls", windowCalls);
+        description.put("availableConcurrentCalls", bulkhead.availablePermits());
+        return description;
+    }
+
+    private <T> T guarded(Supplier<T> call, Predicate<T> isFailure, boolean timed) {
+        Permission permission = acquirePermission();
+        if (permission == Permission.DENIED) {
+            throw new UpstreamUnavailableException("Server calls of " + name + " are suspended",
+                    retryAfterSeconds());
+        }
+        long start = nanoTime.getAsLong();
+        boolean failed = true;
+        try {
+            T result = call.get();
+            failed = isFailure.test(result);
+            return result;
+        } finally {
+            boolean slow = timed
+                    && nanoTime.getAsLong() - start > properties.getSlowCallThreshold().toNanos();
+            onResult(permission, failed || slow);
+        }
+    }
+
+    /**
+     * Takes a bulkhead slot and returns the action that frees it; running the action again does nothing.
+     */
+    private Runnable acquireSlot() {
+        boolean acquired;
+        try {
+            acquired = bulkhead.tryAcquire(properties.getMaxWait().toNanos(), TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            acquired = false;
+        }
+        if (!acquired) {
+            throw new UpstreamUnavailableException("Too many concurrent server calls of " + name, 1);
+        }
+        AtomicBoolean released = new AtomicBoolean();
+        return () -> {
+            if (released.compareAndSet(false, true)) {
+                bulkhead.release();
+            }
+        };
+    }
+
+    private synchronized Permission acquirePermission() {
+        switch (currentState()) {
+            case CLOSED:
+                return Permission.CALL;
+            case HALF_OPEN:
+                if (probesInFlight < properties.getHalfOpenCalls()) {
+                    probesInFlight++;
+                    return Permission.PROBE;
+                }
+                return Permission.DENIED;
+            default:
+                return Permission.DENIED;
+        }
+    }
+
+    /**
+     * Probes decide the half-open state; ordinary calls feed the window while closed. A call that
+     * finishes after the state moved on is ignored.
+     */
+    private synchronized void onResult(Permission permission, boolean failed) {
+        if (permission == Permission.PROBE) {
+            if (state == State.HALF_OPEN) {
+                probesInFlight--;
+                if (failed) {
+                    open();
+                } else if (++probeSuccesses >= properties.getHalfOpenCalls()) {
+                    close();
+                }
+            }
+            return;
+        }
+        if (state != State.CLOSED) {
+            return;
+        }
+
+        if (windowCalls == window.length) {
+            windowFailures -= window[windowNext] ? 1 : 0;
+        } else {
+            windowCalls++;
+        }
+        window[windowNext] = failed;
+        windowFailures += failed ? 1 : 0;
+        windowNext = (windowNext + 1) % window.length;
+
+        if (windowCalls >= properties.getMinimumCalls()
+                && windowFailures * 100 >= properties.getFailureRateThreshold() * windowCalls) {
+            open();
+        }
+    }
+
+    private State currentState() {
+        if (state == State.OPEN && nanoTime.getAsLong() - openedAt >= properties.getOpenDuration().toNanos()) {
+            state = State.HALF_OPEN;
+            probesInFlight = 0;
+            probeSuccesses = 0;
+        }
+        return state;
+    }
+
+    private void open() {
+        state = State.OPEN;
+        openedAt = nanoTime.getAsLong();
+    }
+
+    private void close() {
+        state = State.CLOSED;
+        windowNext = 0;
+        windowCalls = 0;
+        windowFailures = 0;
+    }
+
+    private synchronized long retryAfterSeconds() {
+        long remaining = properties.getOpenDuration().toNanos() - (nanoTime.getAsLong() - openedAt);
+        return Math.max(1, TimeUnit.NANOSECONDS.toSeconds(remaining + TimeUnit.SECONDS.toNanos(1) - 1));
+    }
+}
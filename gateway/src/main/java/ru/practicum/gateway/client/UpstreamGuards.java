@@ -0,0 +1,40 @@
+package ru.practicum.gateway.client;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * One {@link UpstreamGuard} per client, published as {@code shareit.gateway.circuit.state} gauges
+ * (0 closed, 1 open, 2 half-open) and on the {@code circuitbreakers} actuator endpoint.
+ */
+@Component
+public class UpstreamGuards {
+    private final ResilienceProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final ConcurrentMap<String, UpstreamGuard> guards = new ConcurrentHashMap<>();
+
+    public UpstreamGuards(ResilienceProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+    }
+
+    public UpstreamGuard forClient(String name) {
+        return guards.computeIfAbsent(name, key -> {
+            UpstreamGuard guard = new UpstreamGuard(key, properties);
+            Gauge.builder("shareit.gateway.circuit.state", guard, g -> g.getState().ordinal())
+                    .description("Circuit breaker state: 0 closed, 1 open, 2 half-open")
+                    .tag("client", key)
+                    .register(meterRegistry);
+            return guard;
+        });
+    }
+
+    public Map<String, UpstreamGuard> all() {
+        return Map.copyOf(guards);
+    }
+}
@@ -0,0 +1,13 @@
+package ru.practicum.gateway.exception;
+
+import lombok.Getter;
+
+@Getter
+public class UpstreamUnavailableException extends RuntimeException {
+    private final long retryAfterSeconds;
+
+    public UpstreamUnavailableException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+}
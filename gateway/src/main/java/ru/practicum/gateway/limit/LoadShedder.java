@@ -0,0 +1,74 @@
+package ru.practicum.gateway.limit;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.DoubleSupplier;
+
+/**
+ * Rejects requests early when the gateway is saturated. Past {@code maxInFlight} every new request
+ * is rejected. Past the latency threshold, measured as a moving average of admitted requests, the
+ * share rejected grows with the overshoot but never reaches all of them, so the average keeps
+ * being fed and shedding stops once the server recovers.
+ */
+@Component
+public class LoadShedder {
+    private static final double SMOOTHING = 0.2;
+    private static final double MAX_SHED_RATIO = 0.9;
+
+    private final TrafficControlProperties.LoadShedding properties;
+    private final DoubleSupplier random;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicLong averageLatency = new AtomicLong();
+
+    @Autowired
+    public LoadShedder(TrafficControlProperties properties, MeterRegistry meterRegistry) {
+        this(properties.getLoadShedding(), () -> ThreadLocalRandom.current().nextDouble());
+        meterRegistry.gauge("shareit.gateway.in-flight", inFlight);
+        meterRegistry.gauge("shareit.gateway.latency.average", averageLatency, latency -> latency.get() / 1e9);
+    }
+
+    LoadShedder(TrafficControlProperties.LoadShedding properties, DoubleSupplier random) {
+        this.properties = properties;
+        this.random = random;
+    }
+
+    /**
+     * Admits a request, which the caller must then {@link #exit(long) exit}, or returns false.
+     */
+    public boolean tryEnter() {
+        if (inFlight.incrementAndGet() > properties.getMaxInFlight()) {
+            inFlight.decrementAndGet();
+            return false;
+        }
+        double threshold = properties.getLatencyThreshold().toNanos();
+        double overshoot = (averageLatency.get() - threshold) / threshold;
+        if (overshoot > 0 && random.getAsDouble() < Math.min(MAX_SHED_RATIO, overshoot)) {
+            inFlight.decrementAndGet();
+            return false;
+        }
+        return true;
+    }
+
+    public void exit(long elapsedNanos) {
+        exit();
+        averageLatency.accumulateAndGet(elapsedNanos,
+                (average, sample) -> average == 0 ? sample : (long) (average + SMOOTHING * (sample - average)));
+    }
+
+    /**
+     * Releases an admitted request without sampling its latency, for transfers whose duration
+     * follows the size of the body rather than the server's responsiveness.
+     */
+    public void exit() {
+        inFlight.decrementAndGet();
+    }
+
+    int inFlight() {
+        return inFlight.get();
+    }
+}
@@ -0,0 +1,75 @@
+package ru.practicum.gateway.limit;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Token buckets by user and endpoint group. A bucket that has refilled completely carries no state
+ * worth keeping, so such buckets are swept once the map reaches its bound; if every bucket is still
+ * in use, users without one share a bucket per group until the sweep frees room.
+ */
+@Component
+public class RateLimiter {
+    private static final String OVERFLOW_USER = "*";
+    private static final long SWEEP_INTERVAL = TimeUnit.SECONDS.toNanos(1);
+
+    private final TrafficControlProperties.RateLimit properties;
+    private final LongSupplier nanoTime;
+    private final ConcurrentMap<String, TokenBucket> buckets = new ConcurrentHashMap<>();
+    private final AtomicLong lastSweep;
+
+    @Autowired
+    public RateLimiter(TrafficControlProperties properties) {
+        this(properties.getRateLimit(), System::nanoTime);
+    }
+
+    RateLimiter(TrafficControlProperties.RateLimit properties, LongSupplier nanoTime) {
+        this.properties = properties;
+        this.nanoTime = nanoTime;
+        this.lastSweep = new AtomicLong(nanoTime.getAsLong() - SWEEP_INTERVAL);
+    }
+
+    /**
+     * Takes a token from the bucket of {@code user} for {@code group}. Returns 0 when the request
+     * may proceed, otherwise the nanos until it could.
+     */
+    public long tryAcquire(String user, String group) {
+        TrafficControlProperties.Limit limit = properties.limitFor(group);
+        long now = nanoTime.getAsLong();
+        return bucket(user, group, now)
+                .tryAcquire(now, limit.getCapacity(), TimeUnit.SECONDS.toNanos(1) / limit.getRefillPerSecond());
+    }
+
+    int bucketCount() {
+        return buckets.size();
+    }
+
+    private TokenBucket bucket(String user, String group, long now) {
+        String key = user + ":" + group;
+        TokenBucket bucket = buckets.get(key);
+        if (bucket != null) {
+            return bucket;
+        }
+        if (buckets.size() >= properties.getMaxKeys()) {
+            sweep(now);
+            if (buckets.size() >= properties.getMaxKeys()) {
+                return buckets.computeIfAbsent(OVERFLOW_USER + ":" + group, k -> new TokenBucket(now));
+            }
+        }
+        return buckets.computeIfAbsent(key, k -> new TokenBucket(now));
+    }
+
+    private void sweep(long now) {
+        long last = lastSweep.get();
+        if (now - last < SWEEP_INTERVAL || !lastSweep.compareAndSet(last, now)) {
+            return;
+        }
+        buckets.values().removeIf(bucket -> bucket.isFull(now));
+    }
+}
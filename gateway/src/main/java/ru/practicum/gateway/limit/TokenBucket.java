@@ -0,0 +1,37 @@
+package ru.practicum.gateway.limit;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock-free token bucket. Instead of a token count it keeps the instant at which the bucket will
+ * be full again, so taking a token is a single compare-and-set and no refill task is needed.
+ */
+final class TokenBucket {
+    private final AtomicLong fullAt;
+
+    TokenBucket(long now) {
+        this.fullAt = new AtomicLong(now);
+    }
+
+    /**
+     * Takes one token. Returns 0 on success, otherwise the nanos until a token becomes available.
+     */
+    long tryAcquire(long now, int capacity, long refillIntervalNanos) {
+        long burst = capacity * refillIntervalNanos;
+        while (true) {
+            long current = fullAt.get();
+            long next = Math.max(current, now) + refillIntervalNanos;
+            long wait = next - now - burst;
+            if (wait > 0) {
+                return wait;
+            }
+            if (fullAt.compareAndSet(current, next)) {
+                return 0;
+            }
+        }
+    }
+
+    boolean isFull(long now) {
+        return fullAt.get() <= now;
+    }
+}
@@ -0,0 +1,25 @@
+package ru.practicum.gateway.limit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+@Configuration
+@EnableConfigurationProperties(TrafficControlProperties.class)
+public class TrafficControlConfig {
+    @Bean
+    public FilterRegistrationBean<TrafficControlFilter> trafficControlFilter(TrafficControlProperties properties,
+                                                                            RateLimiter rateLimiter,
+                                                                            LoadShedder loadShedder,
+                                                                            ObjectMapper objectMapper,
+                                                                            MeterRegistry meterRegistry) {
+        FilterRegistrationBean<TrafficControlFilter> registration = new FilterRegistrationBean<>(
+                new TrafficControlFilter(properties, rateLimiter, loadShedder, objectMapper, meterRegistry));
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 10);
+        return registration;
+    }
+}
@@ -0,0 +1,114 @@
+package ru.practicum.gateway.limit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throttles each {@code X-Sharer-User-Id} per endpoint group with 429 and sheds load with 503 when
+ * the gateway is saturated, both before any server call is made. Requests without the header are
+ * limited by client address. Actuator endpoints are exempt. Streaming exports and bulk imports count
+ * as in flight but are kept out of the latency average, which their length would otherwise inflate.
+ */
+public class TrafficControlFilter extends OncePerRequestFilter {
+    private static final String USER_HEADER = "X-Sharer-User-Id";
+    private static final String METRIC = "shareit.gateway.rejected";
+
+    private final TrafficControlProperties properties;
+    private final RateLimiter rateLimiter;
+    private final LoadShedder loadShedder;
+    private final ObjectMapper objectMapper;
+    private final Counter rateLimited;
+    private final Counter shed;
+
+    public TrafficControlFilter(TrafficControlProperties properties, RateLimiter rateLimiter,
+                                LoadShedder loadShedder, ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.rateLimiter = rateLimiter;
+        this.loadShedder = loadShedder;
+        this.objectMapper = objectMapper;
+        this.rateLimited = Counter.builder(METRIC)
+                .description("Requests rejected before reaching the server")
+                .tag("reason", "rate-limit")
+                .register(meterRegistry);
+        this.shed = Counter.builder(METRIC)
+                .description("Requests rejected before reaching the server")
+                .tag("reason", "load-shedding")
+                .register(meterRegistry);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return request.getRequestURI().startsWith("/actuator");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        if (properties.getRateLimit().isEnabled()) {
+            String user = request.getHeader(USER_HEADER);
+            long wait = rateLimiter.tryAcquire(user != null ? user : request.getRemoteAddr(),
+                    group(request.getRequestURI()));
+            if (wait > 0) {
+                rateLimited.increment();
+                reject(response, HttpStatus.TOO_MANY_REQUESTS, "Too many requests",
+                        TimeUnit.NANOSECONDS.toSeconds(wait + TimeUnit.SECONDS.toNanos(1) - 1));
+                return;
+            }
+        }
+
+        if (!properties.getLoadShedding().isEnabled()) {
+            chain.doFilter(request, response);
+            return;
+        }
+        if (!loadShedder.tryEnter()) {
+            shed.increment();
+            reject(response, HttpStatus.SERVICE_UNAVAILABLE, "Gateway is overloaded", 1);
+            return;
+        }
+        if (isTransfer(request.getRequestURI())) {
+            try {
+                chain.doFilter(request, response);
+            } finally {
+                loadShedder.exit();
+            }
+            return;
+        }
+        long start = System.nanoTime();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            loadShedder.exit(System.nanoTime() - start);
+        }
+    }
+
+    private static boolean isTransfer(String uri) {
+        return uri.endsWith("/export") || uri.endsWith("/bulk");
+    }
+
+    private void reject(HttpServletResponse response, HttpStatus status, String message, long retryAfterSeconds)
+            throws IOException {
+        response.setStatus(status.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), Map.of("error", message));
+    }
+
+    private static String group(String uri) {
+        int start = uri.startsWith("/") ? 1 : 0;
+        int end = uri.indexOf('/', start);
+        return end < 0 ? uri.substring(start) : uri.substring(start, end);
+    }
+}
@@ -0,0 +1,71 @@
+package ru.practicum.gateway.limit;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Per-user rate limits and load-shedding thresholds applied before a request reaches a client.
+ */
+@Data
+@ConfigurationProperties(prefix = "shareit-gateway.traffic")
+public class TrafficControlProperties {
+    private RateLimit rateLimit = new RateLimit();
+    private LoadShedding loadShedding = new LoadShedding();
+
+    @Data
+    public static class RateLimit {
+        private boolean enabled = true;
+
+        /**
+         * Limit for endpoint groups without their own entry in {@link #groups}.
+         */
+        private Limit defaults = new Limit(40, 20);
+
+        /**
+         * Limits by endpoint group, the first path segment: {@code bookings}, {@code items}, ...
+         */
+        private Map<String, Limit> groups = new HashMap<>();
+
+        /**
+         * Buckets kept at most. Past this, users without a bucket share one bucket per group.
+         */
+        private int maxKeys = 10_000;
+
+        public Limit limitFor(String group) {
+            return groups.getOrDefault(group, defaults);
+        }
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Limit {
+        /**
+         * Requests a user may burst before being throttled.
+         */
+        private int capacity;
+
+        private int refillPerSecond;
+    }
+
+    @Data
+    public static class LoadShedding {
+        private boolean enabled = true;
+
+        /**
+         * Requests the gateway handles at once; beyond this new requests get 503 straight away.
+         */
+        private int maxInFlight = 200;
+
+        /**
+         * Smoothed response time above which a growing share of requests is rejected.
+         */
+        private Duration latencyThreshold = Duration.ofSeconds(2);
+    }
+}
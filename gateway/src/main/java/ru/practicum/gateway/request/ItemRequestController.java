@@ -9,7 +9,6 @@ import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 import ru.practicum.gateway.request.dto.CreateItemRequestDto;
 
-import java.util.Collection;
 import java.util.List;
 
 
@@ -33,15 +32,10 @@ public class ItemRequestController {
     public ResponseEntity<Object> getAllUserRequests(@RequestHeader(USER_ID_HEADER) long userId) {
         ResponseEntity<Object> response = itemRequestClient.getAllUserRequests(userId);
 
-        if (response.getStatusCode().isError()) {
+        if (response.getStatusCode().isError() || response.hasBody()) {
             return response;
         }
 
-        Object body = response.getBody();
-        if (body instanceof Collection) {
-            return ResponseEntity.ok(body);
-        }
-
         return ResponseEntity.ok(List.of());
     }
 
@@ -51,7 +45,7 @@ public class ItemRequestController {
 
         log.info("Getting all requests for user {}", userId);
         ResponseEntity<Object> response = itemRequestClient.getAllRequests(userId);
-        log.info("Response: {}", response.getBody());
+        log.info("Response status: {}", response.getStatusCode());
         return response;
     }
 
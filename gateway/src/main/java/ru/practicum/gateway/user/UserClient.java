@@ -3,41 +3,50 @@ package ru.practicum.gateway.user;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.client.RestTemplateBuilder;
-import org.springframework.http.HttpEntity;
-import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.client.ClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
 import org.springframework.web.util.DefaultUriBuilderFactory;
 import ru.practicum.gateway.client.BaseClient;
+import ru.practicum.gateway.client.GatewayResponseCache;
+import ru.practicum.gateway.client.UpstreamGuards;
 import ru.practicum.gateway.user.dto.UserCreateDto;
 
+import java.util.List;
+
 @Service
 public class UserClient extends BaseClient {
     private static final String API_PREFIX = "/users";
 
     @Autowired
-    public UserClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
+    public UserClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder,
+                      ClientHttpRequestFactory serverRequestFactory, UpstreamGuards upstreamGuards,
+                      GatewayResponseCache responseCache) {
         super(
                 builder
                         .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(() -> new HttpComponentsClientHttpRequestFactory())
-                        .build()
+                        .requestFactory(() -> serverRequestFactory)
+                        .build(),
+                upstreamGuards.forClient("users"),
+                null,
+                responseCache
         );
     }
 
     public ResponseEntity<Object> createUser(UserCreateDto userDto) {
-        HttpHeaders headers = defaultHeaders(null);
-        HttpEntity<UserCreateDto> requestEntity = new HttpEntity<>(userDto, headers);
-        return rest.postForEntity("", requestEntity, Object.class);
+        return post("", userDto);
     }
 
     public ResponseEntity<Object> getAllUsers() {
         return get("", -1);
     }
 
+    public ResponseEntity<Object> getUsers(List<Long> userIds) {
+        return getByIds("", -1L, userIds);
+    }
+
     public ResponseEntity<Object> getUserById(long userId) {
-        return get("/" + userId, -1);
+        return getCached("/" + userId, -1L, null, false);
     }
 
     public ResponseEntity<Object> updateUser(long userId, UserCreateDto userDto) {
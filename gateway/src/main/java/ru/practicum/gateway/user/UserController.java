@@ -1,12 +1,16 @@
 package ru.practicum.gateway.user;
 
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Size;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import ru.practicum.gateway.client.BaseClient;
 import ru.practicum.gateway.user.dto.UserCreateDto;
 
+import java.util.List;
+
 @RestController
 @RequestMapping("/users")
 @RequiredArgsConstructor
@@ -24,6 +28,11 @@ public class UserController {
         return userClient.getAllUsers();
     }
 
+    @GetMapping(params = "ids")
+    public ResponseEntity<Object> getUsers(@RequestParam @Size(max = BaseClient.MAX_BATCH_IDS) List<Long> ids) {
+        return userClient.getUsers(ids);
+    }
+
     @GetMapping("/{userId}")
     public ResponseEntity<Object> getUserById(@PathVariable long userId) {
         return userClient.getUserById(userId);
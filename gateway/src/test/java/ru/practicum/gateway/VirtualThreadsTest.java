@@ -0,0 +1,34 @@
+package ru.practicum.gateway;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.context.annotation.Import;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@Import(VirtualThreadsTest.ThreadProbe.class)
+class VirtualThreadsTest {
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Test
+    void requests_shouldBeHandledOnVirtualThreads() {
+        assertThat(restTemplate.getForObject("/test/thread", Boolean.class)).isTrue();
+    }
+
+    @TestConfiguration
+    @RestController
+    static class ThreadProbe {
+        @GetMapping("/test/thread")
+        boolean isVirtual() {
+            return Thread.currentThread().isVirtual();
+        }
+    }
+}
@@ -0,0 +1,142 @@
+package ru.practicum.gateway.client;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.Resource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.web.client.MockRestServiceServer;
+import org.springframework.web.client.RestTemplate;
+import org.springframework.web.util.DefaultUriBuilderFactory;
+import ru.practicum.gateway.exception.UpstreamUnavailableException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.header;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.headerDoesNotExist;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.method;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.requestTo;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withStatus;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withSuccess;
+
+class BaseClientTest {
+    private RestTemplate rest;
+    private MockRestServiceServer server;
+    private BaseClient client;
+
+    @BeforeEach
+    void setUp() {
+        rest = new RestTemplate();
+        rest.setUriTemplateHandler(new DefaultUriBuilderFactory("http://server/bookings"));
+        server = MockRestServiceServer.bindTo(rest).build();
+        client = new BaseClient(rest);
+    }
+
+    @Test
+    void get_shouldStreamBodyAndRelayHeaders() throws IOException {
+        String json = "[{\"id\":1,\"status\":\"APPROVED\"}]";
+        server.expect(requestTo("http://server/bookings/owner"))
+                .andExpect(method(HttpMethod.GET))
+                .andExpect(header(BaseClient.headerOfUserId, "7"))
+                .andRespond(withSuccess(json, MediaType.APPLICATION_JSON)
+                        .header("X-Next-Cursor", "abc"));
+
+        ResponseEntity<Object> response = client.get("/owner", 7L, null);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getHeaders().getContentType()).isEqualTo(MediaType.APPLICATION_JSON);
+        assertThat(response.getHeaders().getFirst("X-Next-Cursor")).isEqualTo("abc");
+        assertThat(bodyOf(response)).isEqualTo(json);
+    }
+
+    @Test
+    void get_shouldRelayErrorResponses() throws IOException {
+        String error = "{\"error\":\"Booking not found\"}";
+        server.expect(requestTo("http://server/bookings/99"))
+                .andRespond(withStatus(HttpStatus.NOT_FOUND)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .body(error));
+
+        ResponseEntity<Object> response = client.get("/99", 7L, null);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
+        assertThat(response.getHeaders().getContentType()).isEqualTo(MediaType.APPLICATION_JSON);
+        assertThat(bodyOf(response)).isEqualTo(error);
+    }
+
+    @Test
+    void delete_shouldRelayEmptyResponsesWithoutBody() {
+        server.expect(requestTo("http://server/bookings/5"))
+                .andExpect(method(HttpMethod.DELETE))
+                .andRespond(withStatus(HttpStatus.NO_CONTENT));
+
+        ResponseEntity<Object> response = client.delete("/5", 7L);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.NO_CONTENT);
+        assertThat(response.hasBody()).isFalse();
+    }
+
+    @Test
+    void get_shouldHoldBulkheadSlotUntilBodyIsClosed() throws IOException {
+        ResilienceProperties properties = new ResilienceProperties();
+        properties.setMaxConcurrentCalls(1);
+        properties.setMaxWait(Duration.ofMillis(10));
+        BaseClient guardedClient = new BaseClient(rest, new UpstreamGuard("bookings", properties), null, null);
+        server.expect(requestTo("http://server/bookings/owner/export"))
+                .andRespond(withSuccess("1,WAITING\r\n", MediaType.parseMediaType("text/csv")));
+        server.expect(requestTo("http://server/bookings/1"))
+                .andRespond(withSuccess("{\"id\":1}", MediaType.APPLICATION_JSON));
+
+        ResponseEntity<Object> export = guardedClient.get("/owner/export", 7L, null);
+
+        assertThatThrownBy(() -> guardedClient.get("/1", 7L, null))
+                .isInstanceOf(UpstreamUnavailableException.class)
+                .hasMessageContaining("Too many concurrent");
+        assertThat(bodyOf(export)).isEqualTo("1,WAITING\r\n");
+        assertThat(bodyOf(guardedClient.get("/1", 7L, null))).isEqualTo("{\"id\":1}");
+        server.verify();
+    }
+
+    @Test
+    void getCached_shouldRevalidateWithEtagAndDropEntriesAfterMutation() throws IOException {
+        GatewayResponseCache cache = new GatewayResponseCache(true, 10, new SimpleMeterRegistry());
+        BaseClient cachingClient = new BaseClient(rest, null, null, cache);
+        String json = "{\"id\":1}";
+        server.expect(requestTo("http://server/bookings/1"))
+                .andExpect(headerDoesNotExist(HttpHeaders.IF_NONE_MATCH))
+                .andRespond(withSuccess(json, MediaType.APPLICATION_JSON).header(HttpHeaders.ETAG, "\"v1\""));
+        server.expect(requestTo("http://server/bookings/1"))
+                .andExpect(header(HttpHeaders.IF_NONE_MATCH, "\"v1\""))
+                .andRespond(withStatus(HttpStatus.NOT_MODIFIED).header(HttpHeaders.ETAG, "\"v1\""));
+        server.expect(requestTo("http://server/bookings/1"))
+                .andExpect(method(HttpMethod.PATCH))
+                .andRespond(withSuccess());
+        server.expect(requestTo("http://server/bookings/1"))
+                .andExpect(headerDoesNotExist(HttpHeaders.IF_NONE_MATCH))
+                .andRespond(withSuccess(json, MediaType.APPLICATION_JSON).header(HttpHeaders.ETAG, "\"v2\""));
+
+        assertThat(cachingClient.getCached("/1", 7L, null, true).getBody()).isEqualTo(json.getBytes(StandardCharsets.UTF_8));
+        ResponseEntity<Object> revalidated = cachingClient.getCached("/1", 7L, null, true);
+        assertThat(revalidated.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(revalidated.getBody()).isEqualTo(json.getBytes(StandardCharsets.UTF_8));
+        cachingClient.patch("/1", 7L);
+        assertThat(cachingClient.getCached("/1", 7L, null, true).getHeaders().getETag()).isEqualTo("\"v2\"");
+        server.verify();
+    }
+
+    private static String bodyOf(ResponseEntity<Object> response) throws IOException {
+        assertThat(response.getBody()).isInstanceOf(Resource.class);
+        try (InputStream body = ((Resource) response.getBody()).getInputStream()) {
+            return new String(body.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+}
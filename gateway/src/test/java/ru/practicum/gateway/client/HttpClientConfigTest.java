@@ -0,0 +1,133 @@
+package ru.practicum.gateway.client;
+
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.core.io.Resource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.zip.GZIPOutputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class HttpClientConfigTest {
+    private final ApplicationContextRunner contextRunner = new ApplicationContextRunner()
+            .withUserConfiguration(HttpClientConfig.class);
+
+    @Test
+    void connectionManager_shouldApplyPoolProperties() {
+        contextRunner
+                .withPropertyValues(
+                        "shareit-server.http.max-connections=40",
+                        "shareit-server.http.max-connections-per-route=20")
+                .run(context -> {
+                    PoolingHttpClientConnectionManager connectionManager =
+                            context.getBean(PoolingHttpClientConnectionManager.class);
+                    assertThat(connectionManager.getMaxTotal()).isEqualTo(40);
+                    assertThat(connectionManager.getDefaultMaxPerRoute()).isEqualTo(20);
+                    assertThat(context.getBean(ClientHttpRequestFactory.class))
+                            .isInstanceOf(HttpComponentsClientHttpRequestFactory.class);
+                });
+    }
+
+    @Test
+    void poolMetrics_shouldBeRegistered() {
+        contextRunner.run(context -> {
+            MeterRegistry registry = new SimpleMeterRegistry();
+            context.getBean(MeterBinder.class).bindTo(registry);
+            assertThat(registry.find("httpcomponents.httpclient.pool.total.max")
+                    .tag("httpclient", "shareit-server")
+                    .gauge().value()).isEqualTo(200.0);
+        });
+    }
+
+    @Test
+    void serverRequestFactory_shouldAskForGzipAndRelayPlainJson() throws Exception {
+        String json = "[{\"id\":1,\"name\":\"Drill\"}]";
+        HttpServer server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/items", exchange -> {
+            String acceptEncoding = exchange.getRequestHeaders().getFirst("Accept-Encoding");
+            byte[] body = json.getBytes(StandardCharsets.UTF_8);
+            if (acceptEncoding != null && acceptEncoding.contains("gzip")) {
+                ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+                try (GZIPOutputStream gzip = new GZIPOutputStream(compressed)) {
+                    gzip.write(body);
+                }
+                body = compressed.toByteArray();
+                exchange.getResponseHeaders().set("Content-Encoding", "gzip");
+            }
+            exchange.getResponseHeaders().set("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, body.length);
+            exchange.getResponseBody().write(body);
+            exchange.close();
+        });
+        server.start();
+        try {
+            contextRunner.run(context -> {
+                RestTemplate rest = new RestTemplateBuilder()
+                        .rootUri("http://localhost:" + server.getAddress().getPort())
+                        .requestFactory(() -> context.getBean(ClientHttpRequestFactory.class))
+                        .build();
+
+                ResponseEntity<Object> response = new BaseClient(rest).get("/items", null, null);
+
+                assertThat(response.getHeaders().containsKey(HttpHeaders.CONTENT_ENCODING)).isFalse();
+                try (InputStream body = ((Resource) response.getBody()).getInputStream()) {
+                    assertThat(new String(body.readAllBytes(), StandardCharsets.UTF_8)).isEqualTo(json);
+                }
+            });
+        } finally {
+            server.stop(0);
+        }
+    }
+
+    @Test
+    void postStream_shouldSendBodyChunkedWithoutBuffering() throws Exception {
+        String ndjson = "{\"name\":\"Drill\"}\n{\"name\":\"Saw\"}\n";
+        AtomicReference<String> transferEncoding = new AtomicReference<>();
+        AtomicReference<String> contentType = new AtomicReference<>();
+        AtomicReference<String> received = new AtomicReference<>();
+        HttpServer server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/items/bulk", exchange -> {
+            transferEncoding.set(exchange.getRequestHeaders().getFirst("Transfer-Encoding"));
+            contentType.set(exchange.getRequestHeaders().getFirst("Content-Type"));
+            received.set(new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8));
+            exchange.sendResponseHeaders(200, -1);
+            exchange.close();
+        });
+        server.start();
+        try {
+            contextRunner.run(context -> {
+                RestTemplate rest = new RestTemplateBuilder()
+                        .rootUri("http://localhost:" + server.getAddress().getPort() + "/items")
+                        .requestFactory(() -> context.getBean(ClientHttpRequestFactory.class))
+                        .build();
+
+                new BaseClient(rest).postStream("/bulk", 7L, MediaType.APPLICATION_NDJSON,
+                        new ByteArrayInputStream(ndjson.getBytes(StandardCharsets.UTF_8)));
+
+                assertThat(transferEncoding.get()).isEqualTo("chunked");
+                assertThat(contentType.get()).isEqualTo(MediaType.APPLICATION_NDJSON_VALUE);
+                assertThat(received.get()).isEqualTo(ndjson);
+            });
+        } finally {
+            server.stop(0);
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package ru.practicum.gateway.client;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.ResponseEntity;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class RequestCoalescerTest {
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final RequestCoalescer coalescer = new RequestCoalescer(true, meterRegistry);
+
+    @Test
+    void execute_shouldShareOneCallBetweenConcurrentCallers() throws Exception {
+        int callers = 8;
+        AtomicInteger upstreamCalls = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        ResponseEntity<Object> response = ResponseEntity.ok("item");
+
+        ExecutorService executor = Executors.newFixedThreadPool(callers);
+        try {
+            List<Future<ResponseEntity<Object>>> results = new ArrayList<>();
+            for (int i = 0; i < callers; i++) {
+                results.add(executor.submit(() -> coalescer.execute("GET /items/1 7", () -> {
+                    upstreamCalls.incrementAndGet();
+                    await(release);
+                    return response;
+                })));
+            }
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (followers() < callers - 1 && System.nanoTime() < deadline) {
+                Thread.onSpinWait();
+            }
+            release.countDown();
+
+            for (Future<ResponseEntity<Object>> result : results) {
+                assertThat(result.get(5, TimeUnit.SECONDS)).isSameAs(response);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(upstreamCalls).hasValue(1);
+        assertThat(meterRegistry.get("shareit.gateway.coalescing").tag("role", "leader").counter().count())
+                .isEqualTo(1.0);
+    }
+
+    @Test
+    void execute_shouldNotCoalesceDifferentKeysOrFinishedCalls() {
+        AtomicInteger upstreamCalls = new AtomicInteger();
+
+        coalescer.execute("GET /items/1 7", () -> ResponseEntity.ok(upstreamCalls.incrementAndGet()));
+        coalescer.execute("GET /items/1 8", () -> ResponseEntity.ok(upstreamCalls.incrementAndGet()));
+        coalescer.execute("GET /items/1 7", () -> ResponseEntity.ok(upstreamCalls.incrementAndGet()));
+
+        assertThat(upstreamCalls).hasValue(3);
+        assertThat(followers()).isZero();
+    }
+
+    @Test
+    void execute_shouldRethrowFailureAndForgetTheCall() {
+        assertThatThrownBy(() -> coalescer.execute("GET /items/1 7", () -> {
+            throw new IllegalStateException("server unavailable");
+        })).isInstanceOf(IllegalStateException.class);
+
+        assertThat(coalescer.execute("GET /items/1 7", () -> ResponseEntity.ok("item")).getBody())
+                .isEqualTo("item");
+    }
+
+    private double followers() {
+        return meterRegistry.get("shareit.gateway.coalescing").tag("role", "follower").counter().count();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,144 @@
+package ru.practicum.gateway.client;
+
+import org.junit.jupiter.api.Test;
+import ru.practicum.gateway.exception.UpstreamUnavailableException;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class UpstreamGuardTest {
+    private final AtomicLong clock = new AtomicLong();
+    private final ResilienceProperties properties = new ResilienceProperties();
+
+    private UpstreamGuard guard() {
+        properties.setSlidingWindowSize(4);
+        properties.setMinimumCalls(4);
+        properties.setFailureRateThreshold(50);
+        properties.setOpenDuration(Duration.ofSeconds(10));
+        properties.setHalfOpenCalls(2);
+        return new UpstreamGuard("items", properties, clock::get);
+    }
+
+    @Test
+    void call_shouldOpenAfterFailureRateAndProbeBeforeClosing() {
+        UpstreamGuard guard = guard();
+        guard.call(() -> 200, status -> status >= 500);
+        guard.call(() -> 200, status -> status >= 500);
+        guard.call(() -> 503, status -> status >= 500);
+        assertThat(guard.getState()).isEqualTo(UpstreamGuard.State.CLOSED);
+        assertThatThrownBy(() -> guard.call(() -> {
+            throw new IllegalStateException("connection refused");
+        }, status -> false)).isInstanceOf(IllegalStateException.class);
+        assertThat(guard.getState()).isEqualTo(UpstreamGuard.State.OPEN);
+
+        clock.addAndGet(Duration.ofSeconds(4).toNanos());
+        assertThatThrownBy(() -> guard.call(() -> 200, status -> false))
+                .isInstanceOf(UpstreamUnavailableException.class)
+                .extracting("retryAfterSeconds").isEqualTo(6L);
+
+        clock.addAndGet(Duration.ofSeconds(6).toNanos());
+        assertThat(guard.getState()).isEqualTo(UpstreamGuard.State.HALF_OPEN);
+        guard.call(() -> 200, status -> status >= 500);
+        assertThat(guard.getState()).isEqualTo(UpstreamGuard.State.HALF_OPEN);
+        guard.call(() -> 200, status -> status >= 500);
+        assertThat(guard.getState()).isEqualTo(UpstreamGuard.State.CLOSED);
+        assertThat(guard.describe()).containsEntry("bufferedCalls", 0);
+    }
+
+    @Test
+    void call_shouldReopenWhenProbeFails() {
+        UpstreamGuard guard = guard();
+        for (int i = 0; i < 4; i++) {
+            guard.call(() -> 500, status -> status >= 500);
+        }
+        clock.addAndGet(Duration.ofSeconds(10).toNanos());
+
+        guard.call(() -> 500, status -> status >= 500);
+
+        assertThat(guard.getState()).isEqualTo(UpstreamGuard.State.OPEN);
+    }
+
+    @Test
+    void call_shouldCountSlowCallsAsFailures() {
+        properties.setSlowCallThreshold(Duration.ofSeconds(1));
+        UpstreamGuard guard = guard();
+        for (int i = 0; i < 4; i++) {
+            guard.call(() -> clock.addAndGet(Duration.ofSeconds(2).toNanos()), result -> false);
+        }
+
+        assertThat(guard.getState()).isEqualTo(UpstreamGuard.State.OPEN);
+    }
+
+    @Test
+    void call_shouldNotJudgeUntimedCallsSlow() {
+        properties.setSlowCallThreshold(Duration.ofSeconds(1));
+        UpstreamGuard guard = guard();
+        for (int i = 0; i < 4; i++) {
+            guard.call(() -> clock.addAndGet(Duration.ofSeconds(2).toNanos()), result -> false, false);
+        }
+
+        assertThat(guard.getState()).isEqualTo(UpstreamGuard.State.CLOSED);
+        assertThat(guard.describe()).containsEntry("failureRate", 0);
+    }
+
+    @Test
+    void callHoldingSlot_shouldKeepSlotUntilReleasedOrFailed() {
+        properties.setMaxConcurrentCalls(1);
+        properties.setMaxWait(Duration.ofMillis(10));
+        UpstreamGuard guard = guard();
+
+        Runnable release = guard.callHoldingSlot(releaseSlot -> releaseSlot, result -> false, true);
+        assertThat(guard.describe()).containsEntry("availableConcurrentCalls", 0);
+        release.run();
+        release.run();
+        assertThat(guard.describe()).containsEntry("availableConcurrentCalls", 1);
+
+        assertThatThrownBy(() -> guard.callHoldingSlot(releaseSlot -> {
+            throw new IllegalStateException("connection refused");
+        }, result -> false, true)).isInstanceOf(IllegalStateException.class);
+        assertThat(guard.describe()).containsEntry("availableConcurrentCalls", 1);
+    }
+
+    @Test
+    void call_shouldRejectWhenBulkheadIsFull() throws Exception {
+        properties.setMaxConcurrentCalls(1);
+        properties.setMaxWait(Duration.ofMillis(10));
+        UpstreamGuard guard = guard();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            executor.submit(() -> guard.call(() -> {
+                started.countDown();
+                await(release);
+                return 200;
+            }, status -> false));
+            assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+
+            assertThatThrownBy(() -> guard.call(() -> 200, status -> false))
+                    .isInstanceOf(UpstreamUnavailableException.class)
+                    .hasMessageContaining("Too many concurrent");
+        } finally {
+            release.countDown();
+            executor.shutdown();
+        }
+        assertThat(executor.awaitTermination(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(guard.call(() -> 200, status -> false)).isEqualTo(200);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package ru.practicum.gateway.limit;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RateLimiterTest {
+    private final AtomicLong clock = new AtomicLong(TimeUnit.HOURS.toNanos(1));
+    private final TrafficControlProperties.RateLimit properties = new TrafficControlProperties.RateLimit();
+
+    private RateLimiter limiter(int maxKeys) {
+        properties.setDefaults(new TrafficControlProperties.Limit(2, 10));
+        properties.getGroups().put("bookings", new TrafficControlProperties.Limit(1, 1));
+        properties.setMaxKeys(maxKeys);
+        return new RateLimiter(properties, clock::get);
+    }
+
+    @Test
+    void tryAcquire_shouldAllowBurstThenRefillPerUserAndGroup() {
+        RateLimiter limiter = limiter(100);
+
+        assertThat(limiter.tryAcquire("1", "items")).isZero();
+        assertThat(limiter.tryAcquire("1", "items")).isZero();
+        assertThat(limiter.tryAcquire("1", "items")).isEqualTo(TimeUnit.MILLISECONDS.toNanos(100));
+        assertThat(limiter.tryAcquire("2", "items")).isZero();
+        assertThat(limiter.tryAcquire("1", "bookings")).isZero();
+        assertThat(limiter.tryAcquire("1", "bookings")).isEqualTo(TimeUnit.SECONDS.toNanos(1));
+
+        clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(100));
+        assertThat(limiter.tryAcquire("1", "items")).isZero();
+        assertThat(limiter.tryAcquire("1", "items")).isPositive();
+    }
+
+    @Test
+    void tryAcquire_shouldSweepRefilledBucketsAndShareOneWhenFull() {
+        RateLimiter limiter = limiter(2);
+        limiter.tryAcquire("1", "items");
+        limiter.tryAcquire("2", "items");
+
+        assertThat(limiter.tryAcquire("3", "items")).isZero();
+        assertThat(limiter.tryAcquire("4", "items")).isZero();
+        assertThat(limiter.tryAcquire("5", "items")).isPositive();
+        assertThat(limiter.bucketCount()).isEqualTo(3);
+
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(2));
+        assertThat(limiter.tryAcquire("6", "items")).isZero();
+        assertThat(limiter.bucketCount()).isEqualTo(1);
+    }
+}
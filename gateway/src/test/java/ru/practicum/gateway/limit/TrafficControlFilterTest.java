@@ -0,0 +1,110 @@
+package ru.practicum.gateway.limit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TrafficControlFilterTest {
+    private final TrafficControlProperties properties = new TrafficControlProperties();
+
+    private TrafficControlFilter filter(LoadShedder loadShedder) {
+        properties.getRateLimit().setDefaults(new TrafficControlProperties.Limit(1, 1));
+        return new TrafficControlFilter(properties, new RateLimiter(properties), loadShedder,
+                new ObjectMapper(), new SimpleMeterRegistry());
+    }
+
+    @Test
+    void doFilter_shouldAnswerTooManyRequestsWithRetryAfter() throws Exception {
+        TrafficControlFilter filter = filter(new LoadShedder(properties.getLoadShedding(), () -> 1));
+
+        MockHttpServletResponse first = send(filter, "/bookings/owner", "1");
+        MockHttpServletResponse second = send(filter, "/bookings/owner", "1");
+        MockHttpServletResponse otherUser = send(filter, "/bookings/owner", "2");
+        MockHttpServletResponse otherGroup = send(filter, "/items", "1");
+
+        assertThat(first.getStatus()).isEqualTo(200);
+        assertThat(second.getStatus()).isEqualTo(429);
+        assertThat(second.getHeader("Retry-After")).isEqualTo("1");
+        assertThat(second.getContentAsString()).isEqualTo("{\"error\":\"Too many requests\"}");
+        assertThat(otherUser.getStatus()).isEqualTo(200);
+        assertThat(otherGroup.getStatus()).isEqualTo(200);
+        assertThat(send(filter, "/actuator/health", "1").getStatus()).isEqualTo(200);
+    }
+
+    @Test
+    void doFilter_shouldShedLoadWhileServerIsSlowAndRecover() throws Exception {
+        properties.getRateLimit().setEnabled(false);
+        properties.getLoadShedding().setLatencyThreshold(Duration.ofMillis(100));
+        AtomicReference<Double> random = new AtomicReference<>(0.5);
+        LoadShedder loadShedder = new LoadShedder(properties.getLoadShedding(), random::get);
+        TrafficControlFilter filter = filter(loadShedder);
+
+        assertThat(loadShedder.tryEnter()).isTrue();
+        loadShedder.exit(TimeUnit.MILLISECONDS.toNanos(400));
+
+        MockHttpServletResponse shed = send(filter, "/items/1", "1");
+        assertThat(shed.getStatus()).isEqualTo(503);
+        assertThat(shed.getHeader("Retry-After")).isEqualTo("1");
+        assertThat(shed.getContentAsString()).isEqualTo("{\"error\":\"Gateway is overloaded\"}");
+        assertThat(loadShedder.inFlight()).isZero();
+
+        random.set(0.95);
+        for (int i = 0; i < 10; i++) {
+            assertThat(send(filter, "/items/1", "1").getStatus()).isEqualTo(200);
+        }
+        random.set(0.5);
+        assertThat(send(filter, "/items/1", "1").getStatus()).isEqualTo(200);
+    }
+
+    @Test
+    void doFilter_shouldRejectBeyondMaxInFlight() throws Exception {
+        properties.getRateLimit().setEnabled(false);
+        properties.getLoadShedding().setMaxInFlight(1);
+        LoadShedder loadShedder = new LoadShedder(properties.getLoadShedding(), () -> 1);
+        TrafficControlFilter filter = filter(loadShedder);
+
+        assertThat(loadShedder.tryEnter()).isTrue();
+        assertThat(send(filter, "/items", "1").getStatus()).isEqualTo(503);
+        loadShedder.exit(0);
+        assertThat(send(filter, "/items", "1").getStatus()).isEqualTo(200);
+    }
+
+    @Test
+    void doFilter_shouldKeepLongTransfersOutOfLatencyAverage() throws Exception {
+        properties.getRateLimit().setEnabled(false);
+        properties.getLoadShedding().setLatencyThreshold(Duration.ofMillis(10));
+        LoadShedder loadShedder = new LoadShedder(properties.getLoadShedding(), () -> 0);
+        TrafficControlFilter filter = filter(loadShedder);
+        MockHttpServletRequest export = new MockHttpServletRequest("GET", "/bookings/owner/export");
+        export.addHeader("X-Sharer-User-Id", "1");
+
+        filter.doFilter(export, new MockHttpServletResponse(), (request, response) -> {
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+
+        assertThat(loadShedder.inFlight()).isZero();
+        assertThat(send(filter, "/items/1", "1").getStatus()).isEqualTo(200);
+    }
+
+    private static MockHttpServletResponse send(TrafficControlFilter filter, String uri, String userId)
+            throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", uri);
+        request.addHeader("X-Sharer-User-Id", userId);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain());
+        return response;
+    }
+}
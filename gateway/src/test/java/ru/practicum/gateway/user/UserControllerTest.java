@@ -6,6 +6,7 @@ import org.mockito.Mockito;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.core.io.InputStreamResource;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
@@ -13,6 +14,11 @@ import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
 import ru.practicum.gateway.user.dto.UserCreateDto;
 
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.List;
+
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 @WebMvcTest(UserController.class)
@@ -46,6 +52,40 @@ public class UserControllerTest {
                 .andExpect(status().isOk());
     }
 
+    @Test
+    void getUserById_ShouldWriteStreamedServerBodyAsIs() throws Exception {
+        long userId = 1L;
+        String json = "{\"id\":1,\"name\":\"John Doe\",\"email\":\"john@example.com\"}";
+        ResponseEntity<Object> expectedResponse = ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(new InputStreamResource(new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8))));
+        Mockito.when(userClient.getUserById(userId)).thenReturn(expectedResponse);
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/users/{userId}", userId))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(content().string(json));
+    }
+
+    @Test
+    void getUsers_ShouldForwardIdsInOneCall() throws Exception {
+        Mockito.when(userClient.getUsers(List.of(3L, 1L))).thenReturn(ResponseEntity.ok().build());
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/users").param("ids", "3,1"))
+                .andExpect(status().isOk());
+        Mockito.verify(userClient).getUsers(List.of(3L, 1L));
+        Mockito.verify(userClient, Mockito.never()).getAllUsers();
+    }
+
+    @Test
+    void getUsers_WithTooManyIds_ShouldReturnBadRequest() throws Exception {
+        String ids = String.join(",", Collections.nCopies(101, "1"));
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/users").param("ids", ids))
+                .andExpect(status().isBadRequest());
+        Mockito.verifyNoInteractions(userClient);
+    }
+
     @Test
     void deleteUser_ShouldCallClientAndReturnResponse() throws Exception {
         long userId = 1L;
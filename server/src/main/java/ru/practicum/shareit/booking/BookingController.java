@@ -1,19 +1,32 @@
 package ru.practicum.shareit.booking;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import ru.practicum.shareit.booking.dto.BookingPageDto;
 import ru.practicum.shareit.booking.dto.BookingRequestDto;
 import ru.practicum.shareit.booking.dto.BookingResponseDto;
+import ru.practicum.shareit.booking.export.BookingExport;
+import ru.practicum.shareit.booking.export.BookingExportFormat;
+import ru.practicum.shareit.booking.export.BookingExportWriter;
 import ru.practicum.shareit.booking.service.BookingService;
 import ru.practicum.shareit.booking.state.BookingFilterState;
 
+import java.io.IOException;
 import java.util.List;
 
 @RestController
 @RequestMapping(path = "/bookings")
 @RequiredArgsConstructor
 public class BookingController {
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
     private final BookingService bookingService;
+    private final ObjectMapper objectMapper;
 
     @PostMapping
     public BookingResponseDto createBooking(
@@ -37,21 +50,61 @@ public class BookingController {
         return bookingService.getBooking(userId, bookingId);
     }
 
+    @GetMapping(params = "ids")
+    public List<BookingResponseDto> getBookingsByIds(
+            @RequestHeader("X-Sharer-User-Id") Long userId,
+            @RequestParam List<Long> ids) {
+        return bookingService.getBookingsByIds(userId, ids);
+    }
+
     @GetMapping
-    public List<BookingResponseDto> getUserBookings(
+    public ResponseEntity<List<BookingResponseDto>> getUserBookings(
             @RequestHeader("X-Sharer-User-Id") Long userId,
             @RequestParam(defaultValue = "ALL") BookingFilterState state,
             @RequestParam(defaultValue = "0") Integer from,
-            @RequestParam(defaultValue = "10") Integer size) {
-        return bookingService.getUserBookings(userId, state, from, size);
+            @RequestParam(defaultValue = "10") Integer size,
+            @RequestParam(required = false) String cursor) {
+        return toResponse(bookingService.getUserBookings(userId, state, from, size, cursor));
     }
 
     @GetMapping("/owner")
-    public List<BookingResponseDto> getOwnerBookings(
+    public ResponseEntity<List<BookingResponseDto>> getOwnerBookings(
             @RequestHeader("X-Sharer-User-Id") Long userId,
             @RequestParam(defaultValue = "ALL") BookingFilterState state,
             @RequestParam(defaultValue = "0") Integer from,
-            @RequestParam(defaultValue = "10") Integer size) {
-        return bookingService.getOwnerBookings(userId, state, from, size);
+            @RequestParam(defaultValue = "10") Integer size,
+            @RequestParam(required = false) String cursor) {
+        return toResponse(bookingService.getOwnerBookings(userId, state, from, size, cursor));
+    }
+
+    /**
+     * Streams the owner's whole booking history as it is read from the database, so memory use does
+     * not grow with its size. Written directly to the response: an unknown owner still gets a 404,
+     * since that is checked before the first byte.
+     */
+    @GetMapping("/owner/export")
+    public void exportOwnerBookings(
+            @RequestHeader("X-Sharer-User-Id") Long userId,
+            @RequestParam(defaultValue = "ALL") BookingFilterState state,
+            @RequestParam(defaultValue = "NDJSON") BookingExportFormat format,
+            HttpServletResponse response) throws IOException {
+        BookingExport export = bookingService.exportOwnerBookings(userId, state);
+
+        response.setContentType(format.getMediaType().toString());
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                .filename("bookings." + format.getExtension())
+                .build()
+                .toString());
+        BookingExportWriter writer = format.writer(objectMapper, response.getOutputStream());
+        export.forEach(writer);
+        writer.finish();
+    }
+
+    private ResponseEntity<List<BookingResponseDto>> toResponse(BookingPageDto page) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.getNextCursor() != null) {
+            response.header(NEXT_CURSOR_HEADER, page.getNextCursor());
+        }
+        return response.body(page.getBookings());
     }
-}
\ No newline at end of file
+}
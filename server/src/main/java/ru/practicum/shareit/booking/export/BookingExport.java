@@ -0,0 +1,17 @@
+package ru.practicum.shareit.booking.export;
+
+import ru.practicum.shareit.booking.dto.BookingResponseDto;
+
+import java.util.function.Consumer;
+
+/**
+ * A booking export whose access checks have passed but whose rows have not been read yet.
+ */
+@FunctionalInterface
+public interface BookingExport {
+    /**
+     * Reads the bookings through a database cursor and hands them to {@code sink} one at a time; the
+     * cursor and its transaction stay open until the last row has been consumed.
+     */
+    void forEach(Consumer<BookingResponseDto> sink);
+}
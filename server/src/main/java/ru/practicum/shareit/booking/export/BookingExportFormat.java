@@ -0,0 +1,41 @@
+package ru.practicum.shareit.booking.export;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.http.MediaType;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+
+public enum BookingExportFormat {
+    NDJSON(MediaType.APPLICATION_NDJSON, "ndjson") {
+        @Override
+        public BookingExportWriter writer(ObjectMapper objectMapper, OutputStream out) throws IOException {
+            return new NdjsonBookingExportWriter(objectMapper, out);
+        }
+    },
+    CSV(new MediaType("text", "csv", StandardCharsets.UTF_8), "csv") {
+        @Override
+        public BookingExportWriter writer(ObjectMapper objectMapper, OutputStream out) throws IOException {
+            return new CsvBookingExportWriter(out);
+        }
+    };
+
+    private final MediaType mediaType;
+    private final String extension;
+
+    BookingExportFormat(MediaType mediaType, String extension) {
+        this.mediaType = mediaType;
+        this.extension = extension;
+    }
+
+    public MediaType getMediaType() {
+        return mediaType;
+    }
+
+    public String getExtension() {
+        return extension;
+    }
+
+    public abstract BookingExportWriter writer(ObjectMapper objectMapper, OutputStream out) throws IOException;
+}
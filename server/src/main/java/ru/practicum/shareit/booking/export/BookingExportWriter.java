@@ -0,0 +1,17 @@
+package ru.practicum.shareit.booking.export;
+
+import ru.practicum.shareit.booking.dto.BookingResponseDto;
+
+import java.io.IOException;
+import java.util.function.Consumer;
+
+/**
+ * Writes exported bookings to a stream as they arrive. {@link #accept} reports write failures, for
+ * example a client that went away, as {@link java.io.UncheckedIOException}.
+ */
+public interface BookingExportWriter extends Consumer<BookingResponseDto> {
+    /**
+     * Flushes whatever is still buffered; the underlying stream is left open.
+     */
+    void finish() throws IOException;
+}
@@ -0,0 +1,73 @@
+package ru.practicum.shareit.booking.export;
+
+import ru.practicum.shareit.booking.dto.BookingResponseDto;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * RFC 4180 CSV with a header row: fields holding a comma, quote or line break are quoted, and quotes
+ * inside them doubled. Dates use the same pattern as the JSON endpoints. A field that a spreadsheet
+ * would read as a formula (leading {@code =}, {@code +}, {@code -}, {@code @}, tab or carriage
+ * return) is prefixed with {@code '} and quoted, so user-supplied names cannot run in the owner's
+ * spreadsheet.
+ */
+class CsvBookingExportWriter implements BookingExportWriter {
+    private static final String HEADER =
+            "id,start,end,status,item_id,item_name,booker_id,booker_name,booker_email";
+    private static final String FORMULA_TRIGGERS = "=+-@\t\r";
+    private static final DateTimeFormatter DATE_TIME = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss");
+
+    private final Writer writer;
+
+    CsvBookingExportWriter(OutputStream out) throws IOException {
+        this.writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        writer.write(HEADER);
+        writer.write("\r\n");
+    }
+
+    @Override
+    public void accept(BookingResponseDto booking) {
+        try {
+            writer.write(String.join(",",
+                    value(booking.getId()),
+                    value(booking.getStart()),
+                    value(booking.getEnd()),
+                    value(booking.getStatus()),
+                    value(booking.getItem().getId()),
+                    value(booking.getItem().getName()),
+                    value(booking.getBooker().getId()),
+                    value(booking.getBooker().getName()),
+                    value(booking.getBooker().getEmail())));
+            writer.write("\r\n");
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void finish() throws IOException {
+        writer.flush();
+    }
+
+    private static String value(Object value) {
+        if (value == null) {
+            return "";
+        }
+        String text = value instanceof LocalDateTime ? DATE_TIME.format((LocalDateTime) value) : value.toString();
+        if (!text.isEmpty() && FORMULA_TRIGGERS.indexOf(text.charAt(0)) >= 0) {
+            return "\"'" + text.replace("\"", "\"\"") + '"';
+        }
+        if (text.indexOf(',') < 0 && text.indexOf('"') < 0 && text.indexOf('\n') < 0 && text.indexOf('\r') < 0) {
+            return text;
+        }
+        return '"' + text.replace("\"", "\"\"") + '"';
+    }
+}
@@ -0,0 +1,43 @@
+package ru.practicum.shareit.booking.export;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import ru.practicum.shareit.booking.dto.BookingResponseDto;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+
+/**
+ * One booking per line, serialized exactly as the JSON endpoints serialize it.
+ */
+class NdjsonBookingExportWriter implements BookingExportWriter {
+    private final ObjectWriter bookingWriter;
+    private final JsonGenerator generator;
+
+    NdjsonBookingExportWriter(ObjectMapper objectMapper, OutputStream out) throws IOException {
+        this.bookingWriter = objectMapper.writerFor(BookingResponseDto.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        this.generator = objectMapper.getFactory().createGenerator(out)
+                .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        // Root values are otherwise separated by a space, which would start every line but the first.
+        this.generator.setRootValueSeparator(null);
+    }
+
+    @Override
+    public void accept(BookingResponseDto booking) {
+        try {
+            bookingWriter.writeValue(generator, booking);
+            generator.writeRaw('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void finish() throws IOException {
+        generator.flush();
+    }
+}
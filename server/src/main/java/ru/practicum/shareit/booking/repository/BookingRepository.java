@@ -1,39 +1,22 @@
 package ru.practicum.shareit.booking.repository;
 
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 import ru.practicum.shareit.booking.state.BookingStatus;
 import ru.practicum.shareit.booking.model.Booking;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 import java.time.LocalDateTime;
 
 @Repository
-public interface BookingRepository extends JpaRepository<Booking, Long> {
-    Page<Booking> findByBookerIdOrderByStartDesc(Long bookerId, Pageable pageable);
-
-    Page<Booking> findByBookerIdAndStartBeforeAndEndAfterOrderByStartDesc(
-            Long bookerId, LocalDateTime start, LocalDateTime end, Pageable pageable);
-
-    Page<Booking> findByBookerIdAndEndBeforeOrderByStartDesc(Long bookerId, LocalDateTime end, Pageable pageable);
-
-    Page<Booking> findByBookerIdAndStartAfterOrderByStartDesc(Long bookerId, LocalDateTime start, Pageable pageable);
-
-    Page<Booking> findByBookerIdAndStatusOrderByStartDesc(Long bookerId, BookingStatus status, Pageable pageable);
-
-    Page<Booking> findByItemOwnerIdOrderByStartDesc(Long ownerId, Pageable pageable);
-
-    Page<Booking> findByItemOwnerIdAndStartBeforeAndEndAfterOrderByStartDesc(
-            Long ownerId, LocalDateTime start, LocalDateTime end, Pageable pageable);
-
-    Page<Booking> findByItemOwnerIdAndEndBeforeOrderByStartDesc(Long ownerId, LocalDateTime end, Pageable pageable);
-
-    Page<Booking> findByItemOwnerIdAndStartAfterOrderByStartDesc(Long ownerId, LocalDateTime start, Pageable pageable);
-
-    Page<Booking> findByItemOwnerIdAndStatusOrderByStartDesc(Long ownerId, BookingStatus status, Pageable pageable);
+public interface BookingRepository extends JpaRepository<Booking, Long>, BookingRepositoryCustom {
+    @Override
+    @EntityGraph(attributePaths = {"item", "item.owner", "booker"})
+    Optional<Booking> findById(Long id);
 
     Optional<Booking> findFirstByItemIdAndItemOwnerIdAndStatusInAndStartBeforeOrderByStartDesc(
             Long itemId, Long ownerId, List<BookingStatus> statuses, LocalDateTime now);
@@ -44,10 +27,13 @@ public interface BookingRepository extends JpaRepository<Booking, Long> {
     List<Booking> findByBookerIdAndItemIdAndStatusOrderByStartDesc(
             Long bookerId, Long itemId, BookingStatus status);
 
-    Optional<Booking> findFirstByItemIdAndItemOwnerIdAndStatusInAndEndBeforeOrderByEndDesc(
-            Long itemId, Long ownerId, List<BookingStatus> statuses, LocalDateTime end);
+    @EntityGraph(attributePaths = {"item", "item.owner", "booker"})
+    @Query("SELECT b FROM Booking b WHERE b.id IN :ids AND (b.booker.id = :userId OR b.item.owner.id = :userId)")
+    List<Booking> findAllVisibleByIdIn(Long userId, Collection<Long> ids);
 
-    List<Booking> findByItemIdInAndStatusIn(List<Long> itemIds, List<BookingStatus> statuses);
+    @Query("SELECT b.item.id FROM Booking b WHERE b.id = :bookingId")
+    Optional<Long> findItemIdById(Long bookingId);
 
-    List<Booking> findAllByItemIdAndStatus(Long itemId, BookingStatus status);
+    boolean existsByItemIdAndStatusAndStartLessThanEqualAndEndGreaterThanEqual(
+            Long itemId, BookingStatus status, LocalDateTime end, LocalDateTime start);
 }
\ No newline at end of file
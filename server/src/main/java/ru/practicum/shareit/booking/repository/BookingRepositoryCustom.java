@@ -0,0 +1,28 @@
+package ru.practicum.shareit.booking.repository;
+
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
+import ru.practicum.shareit.booking.dto.BookingResponseDto;
+import ru.practicum.shareit.booking.state.BookingFilterState;
+import ru.practicum.shareit.booking.state.BookingRole;
+
+import java.time.LocalDateTime;
+import java.util.stream.Stream;
+
+public interface BookingRepositoryCustom {
+    /**
+     * Lists the bookings a user sees in the given role, ordered by {@code start DESC, id DESC}, in a
+     * single statement that reads only the columns of {@link BookingResponseDto}. Positions in the
+     * returned window are keyset positions over {@code start} and {@code id}.
+     */
+    Window<BookingResponseDto> findBookings(BookingRole role, Long userId, BookingFilterState state,
+                                            LocalDateTime now, ScrollPosition position, int limit);
+
+    /**
+     * Every booking {@link #findBookings} would list, in the same order, read through a forward-only
+     * cursor {@code fetchSize} rows at a time. Rows are not attached to the persistence context. The
+     * stream must be consumed inside a transaction and closed.
+     */
+    Stream<BookingResponseDto> streamBookings(BookingRole role, Long userId, BookingFilterState state,
+                                              LocalDateTime now, int fetchSize);
+}
@@ -0,0 +1,152 @@
+package ru.practicum.shareit.booking.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.OffsetScrollPosition;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
+import org.springframework.lang.Nullable;
+import ru.practicum.shareit.booking.dto.BookingResponseDto;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.state.BookingFilterState;
+import ru.practicum.shareit.booking.state.BookingRole;
+import ru.practicum.shareit.booking.state.BookingStatus;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+@RequiredArgsConstructor
+public class BookingRepositoryCustomImpl implements BookingRepositoryCustom {
+    private final EntityManager entityManager;
+
+    @Override
+    public Window<BookingResponseDto> findBookings(BookingRole role, Long userId, BookingFilterState state,
+                                                   LocalDateTime now, ScrollPosition position, int limit) {
+        TypedQuery<Tuple> typedQuery = entityManager.createQuery(bookingsQuery(role, userId, state, now, position))
+                .setMaxResults(limit + 1);
+        if (position instanceof OffsetScrollPosition && !((OffsetScrollPosition) position).isInitial()) {
+            typedQuery.setFirstResult(Math.toIntExact(((OffsetScrollPosition) position).getOffset() + 1));
+        }
+
+        List<BookingResponseDto> bookings = typedQuery.getResultList().stream()
+                .map(BookingRepositoryCustomImpl::toBookingResponseDto)
+                .toList();
+        boolean hasNext = bookings.size() > limit;
+        List<BookingResponseDto> content = hasNext ? bookings.subList(0, limit) : bookings;
+
+        return Window.from(content, index -> keysetPosition(content.get(index)), hasNext);
+    }
+
+    @Override
+    public Stream<BookingResponseDto> streamBookings(BookingRole role, Long userId, BookingFilterState state,
+                                                     LocalDateTime now, int fetchSize) {
+        return entityManager.createQuery(bookingsQuery(role, userId, state, now, null))
+                .setHint(HibernateHints.HINT_FETCH_SIZE, fetchSize)
+                .setHint(HibernateHints.HINT_READ_ONLY, true)
+                .getResultStream()
+                .map(BookingRepositoryCustomImpl::toBookingResponseDto);
+    }
+
+    private CriteriaQuery<Tuple> bookingsQuery(BookingRole role, Long userId, BookingFilterState state,
+                                               LocalDateTime now, @Nullable ScrollPosition position) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<Booking> booking = query.from(Booking.class);
+        Join<Booking, Item> item = booking.join("item");
+        Join<Item, User> owner = item.join("owner");
+        Join<Booking, User> booker = booking.join("booker");
+        Path<Long> id = booking.get("id");
+        Path<LocalDateTime> start = booking.get("start");
+        Path<LocalDateTime> end = booking.get("end");
+        Path<BookingStatus> status = booking.get("status");
+
+        query.multiselect(id, start, end, status,
+                item.get("id"), item.get("name"), item.get("description"), item.get("available"),
+                item.get("requestId"), owner.get("id"), owner.get("name"), owner.get("email"),
+                booker.get("id"), booker.get("name"), booker.get("email"));
+
+        List<Predicate> predicates = new ArrayList<>();
+        predicates.add(role == BookingRole.OWNER
+                ? cb.equal(owner.get("id"), userId)
+                : cb.equal(booker.get("id"), userId));
+
+        switch (state) {
+            case CURRENT:
+                predicates.add(cb.lessThan(start, now));
+                predicates.add(cb.greaterThan(end, now));
+                break;
+            case PAST:
+                predicates.add(cb.lessThan(end, now));
+                break;
+            case FUTURE:
+                predicates.add(cb.greaterThan(start, now));
+                break;
+            case WAITING:
+                predicates.add(cb.equal(status, BookingStatus.WAITING));
+                break;
+            case REJECTED:
+                predicates.add(cb.equal(status, BookingStatus.REJECTED));
+                break;
+            default:
+                break;
+        }
+
+        if (position instanceof KeysetScrollPosition) {
+            Map<String, Object> keys = ((KeysetScrollPosition) position).getKeys();
+            LocalDateTime lastStart = (LocalDateTime) keys.get("start");
+            Long lastId = (Long) keys.get("id");
+            predicates.add(cb.or(
+                    cb.lessThan(start, lastStart),
+                    cb.and(cb.equal(start, lastStart), cb.lessThan(id, lastId))));
+        }
+
+        return query.where(predicates.toArray(new Predicate[0]))
+                .orderBy(cb.desc(start), cb.desc(id));
+    }
+
+    private static ScrollPosition keysetPosition(BookingResponseDto booking) {
+        Map<String, Object> keys = new LinkedHashMap<>();
+        keys.put("start", booking.getStart());
+        keys.put("id", booking.getId());
+        return ScrollPosition.forward(keys);
+    }
+
+    private static BookingResponseDto toBookingResponseDto(Tuple row) {
+        ItemDto item = new ItemDto();
+        item.setId(row.get(4, Long.class));
+        item.setName(row.get(5, String.class));
+        item.setDescription(row.get(6, String.class));
+        item.setAvailable(row.get(7, Boolean.class));
+        item.setRequestId(row.get(8, Long.class));
+        item.setOwner(new UserDto(row.get(9, Long.class), row.get(10, String.class), row.get(11, String.class)));
+
+        UserDto booker = new UserDto(row.get(12, Long.class), row.get(13, String.class), row.get(14, String.class));
+
+        BookingResponseDto dto = new BookingResponseDto();
+        dto.setId(row.get(0, Long.class));
+        dto.setStart(row.get(1, LocalDateTime.class));
+        dto.setEnd(row.get(2, LocalDateTime.class));
+        dto.setStatus(row.get(3, BookingStatus.class));
+        dto.setItem(item);
+        dto.setBooker(booker);
+        return dto;
+    }
+}
@@ -1,8 +1,10 @@
 package ru.practicum.shareit.booking.service;
 
 import ru.practicum.shareit.booking.state.BookingFilterState;
+import ru.practicum.shareit.booking.dto.BookingPageDto;
 import ru.practicum.shareit.booking.dto.BookingRequestDto;
 import ru.practicum.shareit.booking.dto.BookingResponseDto;
+import ru.practicum.shareit.booking.export.BookingExport;
 
 import java.util.List;
 
@@ -13,7 +15,15 @@ public interface BookingService {
 
     BookingResponseDto getBooking(Long userId, Long bookingId);
 
-    List<BookingResponseDto> getUserBookings(Long userId, BookingFilterState state, Integer from, Integer size);
+    List<BookingResponseDto> getBookingsByIds(Long userId, List<Long> bookingIds);
 
-    List<BookingResponseDto> getOwnerBookings(Long userId, BookingFilterState state, Integer from, Integer size);
+    BookingPageDto getUserBookings(Long userId, BookingFilterState state, Integer from, Integer size, String cursor);
+
+    BookingPageDto getOwnerBookings(Long userId, BookingFilterState state, Integer from, Integer size, String cursor);
+
+    /**
+     * All bookings of the owner's items in {@code state}, in the order of {@link #getOwnerBookings}.
+     * Fails now if the owner does not exist; rows are only read when the export is run.
+     */
+    BookingExport exportOwnerBookings(Long userId, BookingFilterState state);
 }
\ No newline at end of file
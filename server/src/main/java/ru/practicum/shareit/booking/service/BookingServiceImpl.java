@@ -1,46 +1,61 @@
 package ru.practicum.shareit.booking.service;
 
 import lombok.RequiredArgsConstructor;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import ru.practicum.shareit.booking.state.BookingFilterState;
+import ru.practicum.shareit.booking.state.BookingRole;
 import ru.practicum.shareit.booking.mapper.BookingMapper;
+import ru.practicum.shareit.booking.dto.BookingPageDto;
 import ru.practicum.shareit.booking.dto.BookingRequestDto;
 import ru.practicum.shareit.booking.dto.BookingResponseDto;
+import ru.practicum.shareit.booking.export.BookingExport;
 import ru.practicum.shareit.booking.state.BookingStatus;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.common.BatchIds;
 import ru.practicum.shareit.enums.Actions;
 import ru.practicum.shareit.exception.*;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.CommentRepository;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.user.index.UserIdIndex;
 import ru.practicum.shareit.user.mapper.UserMapper;
 import ru.practicum.shareit.user.model.User;
-import ru.practicum.shareit.user.repository.UserRepository;
 import ru.practicum.shareit.item.mapper.ItemMapper;
 import ru.practicum.shareit.item.mapper.CommentMapper;
 
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
-import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
 public class BookingServiceImpl implements BookingService {
+    private static final int EXPORT_FETCH_SIZE = 500;
+
     private final BookingRepository bookingRepository;
-    private final UserRepository userRepository;
+    private final UserIdIndex userIdIndex;
     private final ItemRepository itemRepository;
     private final BookingMapper bookingMapper;
     private final CommentRepository commentRepository;
     private final ItemMapper itemMapper;
     private final UserMapper userMapper;
+    private final ItemBookingLocks itemLocks;
+    private final TransactionTemplate transactionTemplate;
 
     @Override
     public BookingResponseDto createBooking(Long userId, BookingRequestDto bookingRequestDto) {
+        return itemLocks.callLocked(bookingRequestDto.getItemId(),
+                () -> transactionTemplate.execute(status -> doCreateBooking(userId, bookingRequestDto)));
+    }
+
+    private BookingResponseDto doCreateBooking(Long userId, BookingRequestDto bookingRequestDto) {
         User booker = getUserOrThrow(userId, Actions.TO_VIEW);
         Item item = getItemOrThrow(bookingRequestDto.getItemId(), Actions.TO_VIEW);
 
@@ -58,7 +73,7 @@ public class BookingServiceImpl implements BookingService {
     }
 
     private User getUserOrThrow(long userId, String message) {
-        Optional<User> optionalUser = userRepository.findById(userId);
+        Optional<User> optionalUser = userIdIndex.findById(userId);
         if (optionalUser.isEmpty()) {
             throw new NotFoundException(String.format("Пользователя с id = %d для %s не найдено", userId, message));
         }
@@ -66,7 +81,7 @@ public class BookingServiceImpl implements BookingService {
     }
 
     private Item getItemOrThrow(long itemId, String message) {
-        Optional<Item> optionalItem = itemRepository.findById(itemId);
+        Optional<Item> optionalItem = itemRepository.findByIdForUpdate(itemId);
         if (optionalItem.isEmpty()) {
             throw new NotFoundException(String.format("Вещи с id = %d для %s не найдено", itemId, message));
         }
@@ -90,6 +105,15 @@ public class BookingServiceImpl implements BookingService {
 
     @Override
     public BookingResponseDto approveBooking(Long userId, Long bookingId, Boolean approved) {
+        Long itemId = bookingRepository.findItemIdById(bookingId)
+                .orElseThrow(() -> new BookingNotFoundException(bookingId));
+
+        return itemLocks.callLocked(itemId,
+                () -> transactionTemplate.execute(status -> doApproveBooking(userId, itemId, bookingId, approved)));
+    }
+
+    private BookingResponseDto doApproveBooking(Long userId, Long itemId, Long bookingId, Boolean approved) {
+        getItemOrThrow(itemId, Actions.TO_UPDATE);
         Booking booking = getBookingOrThrow(bookingId);
 
         if (!booking.getItem().getOwner().getId().equals(userId)) {
@@ -98,6 +122,9 @@ public class BookingServiceImpl implements BookingService {
         if (booking.getStatus() != BookingStatus.WAITING) {
             throw new BookingAlreadyProcessedException();
         }
+        if (approved && isTimeOverlaps(itemId, booking.getStart(), booking.getEnd())) {
+            throw new ValidationException("Товар уже забронирован");
+        }
 
         booking.setStatus(approved ? BookingStatus.APPROVED : BookingStatus.REJECTED);
         Booking updatedBooking = bookingRepository.save(booking);
@@ -110,6 +137,7 @@ public class BookingServiceImpl implements BookingService {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public BookingResponseDto getBooking(Long userId, Long bookingId) {
         Booking booking = getBookingOrThrow(bookingId);
 
@@ -121,82 +149,73 @@ public class BookingServiceImpl implements BookingService {
         return bookingMapper.toBookingResponseDto(booking);
     }
 
+    /**
+     * Same access rule as {@link #getBooking}, applied in the query: bookings the user neither made
+     * nor owns the item of are left out.
+     */
     @Override
-        public List<BookingResponseDto> getUserBookings(Long userId, BookingFilterState state, Integer from, Integer size) {
-            userRepository.findById(userId)
-                    .orElseThrow(() -> new NotFoundException("User with id=" + userId + " not found"));
+    @Transactional(readOnly = true)
+    public List<BookingResponseDto> getBookingsByIds(Long userId, List<Long> bookingIds) {
+        List<Long> ids = BatchIds.distinct(bookingIds);
+        return BatchIds.inRequestedOrder(ids, bookingRepository.findAllVisibleByIdIn(userId, ids), Booking::getId)
+                .stream()
+                .map(bookingMapper::toBookingResponseDto)
+                .toList();
+    }
 
-        PageRequest page = PageRequest.of(from / size, size);
-        LocalDateTime now = LocalDateTime.now();
-        Page<Booking> bookings;
-
-        switch (state) {
-            case CURRENT:
-                bookings = bookingRepository.findByBookerIdAndStartBeforeAndEndAfterOrderByStartDesc(
-                        userId, now, now, page);
-                break;
-            case PAST:
-                bookings = bookingRepository.findByBookerIdAndEndBeforeOrderByStartDesc(
-                        userId, now, page);
-                break;
-            case FUTURE:
-                bookings = bookingRepository.findByBookerIdAndStartAfterOrderByStartDesc(
-                        userId, now, page);
-                break;
-            case WAITING:
-                bookings = bookingRepository.findByBookerIdAndStatusOrderByStartDesc(
-                        userId, BookingStatus.WAITING, page);
-                break;
-            case REJECTED:
-                bookings = bookingRepository.findByBookerIdAndStatusOrderByStartDesc(
-                        userId, BookingStatus.REJECTED, page);
-                break;
-            default:
-                bookings = bookingRepository.findByBookerIdOrderByStartDesc(userId, page);
-        }
+    @Override
+    @Transactional(readOnly = true)
+    public BookingPageDto getUserBookings(Long userId, BookingFilterState state, Integer from, Integer size,
+                                          String cursor) {
+        return getBookings(BookingRole.BOOKER, userId, state, from, size, cursor);
+    }
 
-        return bookings.stream()
-                .map(bookingMapper::toBookingResponseDto)
-                .collect(Collectors.toList());
+    @Override
+    @Transactional(readOnly = true)
+    public BookingPageDto getOwnerBookings(Long userId, BookingFilterState state, Integer from, Integer size,
+                                           String cursor) {
+        return getBookings(BookingRole.OWNER, userId, state, from, size, cursor);
     }
 
     @Override
-    public List<BookingResponseDto> getOwnerBookings(Long userId, BookingFilterState state, Integer from, Integer size) {
-        userRepository.findById(userId)
+    public BookingExport exportOwnerBookings(Long userId, BookingFilterState state) {
+        userIdIndex.findById(userId)
                 .orElseThrow(() -> new NotFoundException("User with id=" + userId + " not found"));
 
-        PageRequest page = PageRequest.of(from / size, size);
         LocalDateTime now = LocalDateTime.now();
-        Page<Booking> bookings;
-
-        switch (state) {
-            case CURRENT:
-                bookings = bookingRepository.findByItemOwnerIdAndStartBeforeAndEndAfterOrderByStartDesc(
-                        userId, now, now, page);
-                break;
-            case PAST:
-                bookings = bookingRepository.findByItemOwnerIdAndEndBeforeOrderByStartDesc(
-                        userId, now, page);
-                break;
-            case FUTURE:
-                bookings = bookingRepository.findByItemOwnerIdAndStartAfterOrderByStartDesc(
-                        userId, now, page);
-                break;
-            case WAITING:
-                bookings = bookingRepository.findByItemOwnerIdAndStatusOrderByStartDesc(
-                        userId, BookingStatus.WAITING, page);
-                break;
-            case REJECTED:
-                bookings = bookingRepository.findByItemOwnerIdAndStatusOrderByStartDesc(
-                        userId, BookingStatus.REJECTED, page);
-                break;
-            default:
-                bookings = bookingRepository.findByItemOwnerIdOrderByStartDesc(userId, page);
-        }
+        TransactionTemplate readOnly = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        readOnly.setReadOnly(true);
+        return sink -> readOnly.executeWithoutResult(status -> {
+            try (Stream<BookingResponseDto> bookings = bookingRepository.streamBookings(
+                    BookingRole.OWNER, userId, state, now, EXPORT_FETCH_SIZE)) {
+                bookings.forEach(sink);
+            }
+        });
+    }
 
-        return bookings.stream()
-                .map(bookingMapper::toBookingResponseDto)
-                .collect(Collectors.toList());
+    private BookingPageDto getBookings(BookingRole role, Long userId, BookingFilterState state, Integer from,
+                                       Integer size, String cursor) {
+        userIdIndex.findById(userId)
+                .orElseThrow(() -> new NotFoundException("User with id=" + userId + " not found"));
+
+        Window<BookingResponseDto> bookings = bookingRepository.findBookings(
+                role, userId, state, LocalDateTime.now(), scrollPosition(from, size, cursor), size);
+        String nextCursor = bookings.hasNext() && !bookings.isEmpty()
+                ? BookingCursor.encode(bookings.positionAt(bookings.size() - 1))
+                : null;
+        return new BookingPageDto(bookings.getContent(), nextCursor);
+    }
+
+    /**
+     * A cursor seeks past the last booking the client has seen; without one the legacy from/size
+     * contract applies, rounded down to a page boundary as before.
+     */
+    private ScrollPosition scrollPosition(Integer from, Integer size, String cursor) {
+        if (cursor != null && !cursor.isBlank()) {
+            return BookingCursor.decode(cursor);
+        }
+        long offset = (long) (from / size) * size;
+        return offset == 0 ? ScrollPosition.offset() : ScrollPosition.offset(offset - 1);
     }
 
     private List<CommentDto> getCommentDtosByItemId(long itemId) {
@@ -206,19 +225,8 @@ public class BookingServiceImpl implements BookingService {
     }
 
     public boolean isTimeOverlaps(Long itemId, LocalDateTime start, LocalDateTime end) {
-        List<Booking> approvedBookings = bookingRepository
-                .findAllByItemIdAndStatus(itemId, BookingStatus.APPROVED);
-
-        for (Booking existingBooking : approvedBookings) {
-            boolean isNotOverlapping = existingBooking.getEnd().isBefore(start)
-                    || existingBooking.getStart().isAfter(end);
-
-            if (!isNotOverlapping) {
-                return true;
-            }
-        }
-
-        return false;
+        return bookingRepository.existsByItemIdAndStatusAndStartLessThanEqualAndEndGreaterThanEqual(
+                itemId, BookingStatus.APPROVED, end, start);
     }
 
 }
\ No newline at end of file
@@ -0,0 +1,6 @@
+package ru.practicum.shareit.booking.state;
+
+public enum BookingRole {
+    BOOKER,
+    OWNER
+}
@@ -0,0 +1,41 @@
+package ru.practicum.shareit.common;
+
+import ru.practicum.shareit.exception.ValidationException;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Helpers for the {@code ?ids=} multi-get endpoints: ids are capped, de-duplicated, and results come
+ * back in the order the ids were asked for. Ids that do not exist or the user may not see are left
+ * out rather than failing the whole batch.
+ */
+public final class BatchIds {
+    public static final int MAX_IDS = 100;
+
+    private BatchIds() {
+    }
+
+    public static List<Long> distinct(Collection<Long> ids) {
+        if (ids.size() > MAX_IDS) {
+            throw new ValidationException("At most " + MAX_IDS + " ids may be requested at once");
+        }
+        return ids.stream()
+                .filter(Objects::nonNull)
+                .distinct()
+                .toList();
+    }
+
+    public static <T> List<T> inRequestedOrder(List<Long> ids, Collection<T> found, Function<T, Long> idOf) {
+        Map<Long, T> byId = found.stream()
+                .collect(Collectors.toMap(idOf, Function.identity()));
+        return ids.stream()
+                .map(byId::get)
+                .filter(Objects::nonNull)
+                .toList();
+    }
+}
@@ -0,0 +1,68 @@
+package ru.practicum.shareit.config;
+
+import org.hibernate.boot.spi.SessionFactoryOptions;
+import org.hibernate.cache.cfg.spi.DomainDataRegionBuildingContext;
+import org.hibernate.cache.cfg.spi.DomainDataRegionConfig;
+import org.hibernate.cache.spi.support.DomainDataStorageAccess;
+import org.hibernate.cache.spi.support.RegionFactoryTemplate;
+import org.hibernate.cache.spi.support.StorageAccess;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-process second-level cache regions for Hibernate. Concurrency is left to Hibernate's own access
+ * strategies ({@code READ_WRITE} soft-locks entries while a transaction changes them); this factory
+ * only supplies bounded, expiring storage for them, and keeps the entity regions by name so their
+ * hit and miss counts can be published.
+ */
+public class BoundedRegionFactory extends RegionFactoryTemplate {
+    private final int maxEntries;
+    private final long timeToLiveNanos;
+    private final Map<String, BoundedStorageAccess> domainRegions = new ConcurrentHashMap<>();
+
+    public BoundedRegionFactory(int maxEntries, Duration timeToLive) {
+        this.maxEntries = maxEntries;
+        this.timeToLiveNanos = timeToLive.toNanos();
+    }
+
+    @Override
+    protected DomainDataStorageAccess createDomainDataStorageAccess(DomainDataRegionConfig regionConfig,
+                                                                    DomainDataRegionBuildingContext buildingContext) {
+        BoundedStorageAccess storage = newStorage();
+        domainRegions.put(regionConfig.getRegionName(), storage);
+        return storage;
+    }
+
+    @Override
+    protected StorageAccess createQueryResultsRegionStorageAccess(String regionName,
+                                                                  SessionFactoryImplementor sessionFactory) {
+        return newStorage();
+    }
+
+    @Override
+    protected StorageAccess createTimestampsRegionStorageAccess(String regionName,
+                                                                SessionFactoryImplementor sessionFactory) {
+        return newStorage();
+    }
+
+    @Override
+    protected void prepareForUse(SessionFactoryOptions settings, Map<String, Object> configValues) {
+    }
+
+    @Override
+    protected void releaseFromUse() {
+        domainRegions.clear();
+    }
+
+    Map<String, BoundedStorageAccess> domainRegions() {
+        return Collections.unmodifiableMap(domainRegions);
+    }
+
+    private BoundedStorageAccess newStorage() {
+        return new BoundedStorageAccess(maxEntries, timeToLiveNanos, System::nanoTime);
+    }
+}
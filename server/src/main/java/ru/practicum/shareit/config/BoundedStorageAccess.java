@@ -0,0 +1,105 @@
+package ru.practicum.shareit.config;
+
+import org.hibernate.cache.spi.support.DomainDataStorageAccess;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * One cache region: an LRU map bounded by entry count whose entries also expire after a fixed time
+ * to live, so that rows changed outside this server's session factory are eventually re-read.
+ * Counts the hits and misses of Hibernate's lookups itself, whether or not statistics are enabled.
+ */
+class BoundedStorageAccess implements DomainDataStorageAccess {
+    private final Map<Object, Entry> entries;
+    private final long timeToLiveNanos;
+    private final LongSupplier nanoTime;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    BoundedStorageAccess(int maxEntries, long timeToLiveNanos, LongSupplier nanoTime) {
+        this.timeToLiveNanos = timeToLiveNanos;
+        this.nanoTime = nanoTime;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Object, Entry> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    @Override
+    public Object getFromCache(Object key, SharedSessionContractImplementor session) {
+        Object value = lookup(key);
+        (value == null ? misses : hits).increment();
+        return value;
+    }
+
+    @Override
+    public synchronized void putIntoCache(Object key, Object value, SharedSessionContractImplementor session) {
+        entries.put(key, new Entry(value, nanoTime.getAsLong() + timeToLiveNanos));
+    }
+
+    @Override
+    public synchronized void removeFromCache(Object key, SharedSessionContractImplementor session) {
+        entries.remove(key);
+    }
+
+    @Override
+    public synchronized void clearCache(SharedSessionContractImplementor session) {
+        entries.clear();
+    }
+
+    @Override
+    public boolean contains(Object key) {
+        return lookup(key) != null;
+    }
+
+    @Override
+    public synchronized void evictData() {
+        entries.clear();
+    }
+
+    @Override
+    public synchronized void evictData(Object key) {
+        entries.remove(key);
+    }
+
+    @Override
+    public synchronized void release() {
+        entries.clear();
+    }
+
+    long hitCount() {
+        return hits.sum();
+    }
+
+    long missCount() {
+        return misses.sum();
+    }
+
+    private synchronized Object lookup(Object key) {
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            return null;
+        }
+        if (nanoTime.getAsLong() - entry.expiresAt >= 0) {
+            entries.remove(key);
+            return null;
+        }
+        return entry.value;
+    }
+
+    private static final class Entry {
+        private final Object value;
+        private final long expiresAt;
+
+        private Entry(Object value, long expiresAt) {
+            this.value = value;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package ru.practicum.shareit.config;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.cache.spi.RegionFactory;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Second-level cache for the entities marked {@code @Cache}: {@code User} and {@code Item}, which
+ * nearly every request loads by id to check existence or ownership. Hits and misses per
+ * region are published as {@code shareit.entity.cache} meters, counted by the cache itself so
+ * Hibernate's statistics can stay off.
+ */
+@Configuration
+@ConditionalOnProperty(name = "shareit.entity-cache.enabled", havingValue = "true", matchIfMissing = true)
+public class EntityCacheConfig {
+    private static final String METRIC = "shareit.entity.cache";
+
+    @Bean
+    public HibernatePropertiesCustomizer entityCacheProperties(
+            @Value("${shareit.entity-cache.max-entries:10000}") int maxEntries,
+            @Value("${shareit.entity-cache.time-to-live:10m}") Duration timeToLive) {
+        return properties -> {
+            properties.put(AvailableSettings.USE_SECOND_LEVEL_CACHE, true);
+            properties.put(AvailableSettings.CACHE_REGION_FACTORY, new BoundedRegionFactory(maxEntries, timeToLive));
+        };
+    }
+
+    @Bean
+    public MeterBinder entityCacheMetrics(EntityManagerFactory entityManagerFactory) {
+        return registry -> {
+            RegionFactory regionFactory = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                    .getCache()
+                    .getRegionFactory();
+            if (!(regionFactory instanceof BoundedRegionFactory)) {
+                return;
+            }
+            ((BoundedRegionFactory) regionFactory).domainRegions().forEach((region, storage) -> {
+                register(registry, storage, region, "hit", BoundedStorageAccess::hitCount);
+                register(registry, storage, region, "miss", BoundedStorageAccess::missCount);
+            });
+        };
+    }
+
+    private static void register(MeterRegistry registry, BoundedStorageAccess storage, String region, String result,
+                                 ToDoubleFunction<BoundedStorageAccess> count) {
+        FunctionCounter.builder(METRIC, storage, count)
+                .description("Second-level cache lookups by region")
+                .tag("region", region.substring(region.lastIndexOf('.') + 1))
+                .tag("result", result)
+                .register(registry);
+    }
+}
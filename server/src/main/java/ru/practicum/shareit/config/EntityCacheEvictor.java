@@ -0,0 +1,42 @@
+package ru.practicum.shareit.config;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Evicts second-level cache entries once the current transaction commits, so that a concurrent read
+ * cannot put the old row back in between. Hibernate's {@code READ_WRITE} strategy already updates
+ * entries for changes it makes itself; eviction also covers rows the database changes on its own,
+ * such as the items removed by {@code ON DELETE CASCADE} when their owner is deleted.
+ */
+@Component
+public class EntityCacheEvictor {
+    private final EntityManagerFactory entityManagerFactory;
+
+    public EntityCacheEvictor(EntityManagerFactory entityManagerFactory) {
+        this.entityManagerFactory = entityManagerFactory;
+    }
+
+    public void evict(Class<?> entityType, Object id) {
+        afterCommit(() -> entityManagerFactory.getCache().evict(entityType, id));
+    }
+
+    public void evictAll(Class<?> entityType) {
+        afterCommit(() -> entityManagerFactory.getCache().evict(entityType));
+    }
+
+    private static void afterCommit(Runnable eviction) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            eviction.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                eviction.run();
+            }
+        });
+    }
+}
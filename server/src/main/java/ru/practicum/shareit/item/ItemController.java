@@ -1,14 +1,18 @@
 package ru.practicum.shareit.item;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.ItemBulkResultDto;
 import ru.practicum.shareit.item.dto.ItemCreateDto;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.service.ItemBulkImporter;
 import ru.practicum.shareit.item.service.ItemService;
 
-
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
 
 @RestController
@@ -16,10 +20,12 @@ import java.util.List;
 
 public class ItemController {
     private final ItemService itemService;
+    private final ItemBulkImporter itemBulkImporter;
 
     @Autowired
-    public ItemController(ItemService itemService) {
+    public ItemController(ItemService itemService, ItemBulkImporter itemBulkImporter) {
         this.itemService = itemService;
+        this.itemBulkImporter = itemBulkImporter;
     }
 
     @PostMapping
@@ -28,6 +34,12 @@ public class ItemController {
         return ResponseEntity.ok(itemService.addItem(userId, itemDto));
     }
 
+    @PostMapping(value = "/bulk", consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public ResponseEntity<ItemBulkResultDto> addItems(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                                      InputStream body) throws IOException {
+        return ResponseEntity.ok(itemBulkImporter.importItems(userId, body));
+    }
+
     @PatchMapping("/{itemId}")
     public ResponseEntity<ItemDto> updateItem(@RequestHeader("X-Sharer-User-Id") Long userId,
                                               @PathVariable Long itemId,
@@ -42,14 +54,24 @@ public class ItemController {
         return ResponseEntity.ok(itemService.getItem(itemId, userId));
     }
 
+    @GetMapping(params = "ids")
+    public ResponseEntity<List<ItemDto>> getItems(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                                  @RequestParam List<Long> ids) {
+        return ResponseEntity.ok(itemService.getItems(ids, userId));
+    }
+
     @GetMapping
-    public ResponseEntity<List<ItemDto>> getOwnerItems(@RequestHeader("X-Sharer-User-Id") Long userId) {
-        return ResponseEntity.ok(itemService.getItemsByOwnerId(userId));
+    public ResponseEntity<List<ItemDto>> getOwnerItems(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                                       @RequestParam(defaultValue = "0") Integer from,
+                                                       @RequestParam(defaultValue = "10") Integer size) {
+        return ResponseEntity.ok(itemService.getItemsByOwnerId(userId, from, size));
     }
 
     @GetMapping("/search")
-    public ResponseEntity<List<ItemDto>> searchItems(@RequestParam String text) {
-        return ResponseEntity.ok(itemService.searchItems(text));
+    public ResponseEntity<List<ItemDto>> searchItems(@RequestParam String text,
+                                                     @RequestParam(defaultValue = "0") Integer from,
+                                                     @RequestParam(defaultValue = "10") Integer size) {
+        return ResponseEntity.ok(itemService.searchItems(text, from, size));
     }
 
     @PostMapping("/{itemId}/comment")
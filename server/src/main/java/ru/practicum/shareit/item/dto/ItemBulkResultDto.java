@@ -0,0 +1,43 @@
+package ru.practicum.shareit.item.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Outcome of a {@code POST /items/bulk} import: one entry per element of the uploaded array or
+ * NDJSON stream, numbered from 0 in upload order, with the new item's id or the reason it was
+ * rejected.
+ */
+@Data
+@NoArgsConstructor
+public class ItemBulkResultDto {
+    private int received;
+    private int created;
+    private int failed;
+    private List<Row> rows = new ArrayList<>();
+
+    public void addCreated(int row, Long id) {
+        received++;
+        created++;
+        rows.add(new Row(row, id, null));
+    }
+
+    public void addFailed(int row, String error) {
+        received++;
+        failed++;
+        rows.add(new Row(row, null, error));
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Row {
+        private int row;
+        private Long id;
+        private String error;
+    }
+}
@@ -0,0 +1,41 @@
+package ru.practicum.shareit.item.repository;
+
+import ru.practicum.shareit.item.dto.ItemDto;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+public interface ItemRepositoryCustom {
+    /**
+     * Reads an item with its owner, comments and, when {@code userId} owns the item, the last finished
+     * and the next approved booking relative to {@code now}, in a single statement.
+     */
+    Optional<ItemDto> findItemDetails(Long itemId, Long userId, LocalDateTime now);
+
+    /**
+     * Reads one page of an owner's items, ordered by id, with comments and the last started and next
+     * approved booking of each item selected by the database rather than filtered in memory.
+     */
+    List<ItemDto> findOwnerItems(Long ownerId, LocalDateTime now, int offset, int limit);
+
+    /**
+     * Batch form of {@link #findItemDetails}: the given items, ordered by id, with comments and, for
+     * the items {@code userId} owns, the same last and next booking, in three statements in total.
+     */
+    List<ItemDto> findItemsDetails(Collection<Long> itemIds, Long userId, LocalDateTime now);
+
+    /**
+     * Reads one page of ids of available items whose name or description contains {@code text},
+     * ignoring case, ranked by {@code pg_trgm} word similarity with name matches first. PostgreSQL
+     * only: the {@code ILIKE} filter is served by the trigram GIN indexes.
+     */
+    List<Long> searchAvailableIdsByTrigram(String text, int offset, int limit);
+
+    /**
+     * Portable variant of {@link #searchAvailableIdsByTrigram}: items matching by name come first,
+     * then by id.
+     */
+    List<Long> searchAvailableIds(String text, int offset, int limit);
+}
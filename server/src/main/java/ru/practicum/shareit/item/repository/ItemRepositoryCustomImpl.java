@@ -0,0 +1,257 @@
+package ru.practicum.shareit.item.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Tuple;
+import lombok.RequiredArgsConstructor;
+import ru.practicum.shareit.booking.dto.BookingShortDto;
+import ru.practicum.shareit.booking.state.BookingStatus;
+import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.user.dto.UserDto;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@RequiredArgsConstructor
+public class ItemRepositoryCustomImpl implements ItemRepositoryCustom {
+    private static final String ITEM_DETAILS_QUERY = "SELECT i.id, i.name, i.description, i.available, i.requestId, " +
+            "o.id, o.name, o.email, " +
+            "lb.id, lb.booker.id, lb.start, lb.end, " +
+            "nb.id, nb.booker.id, nb.start, nb.end, " +
+            "c.id, c.text, a.name, c.created " +
+            "FROM Item i JOIN i.owner o " +
+            "LEFT JOIN Booking lb ON o.id = :userId AND lb.id = (" +
+            "SELECT b.id FROM Booking b WHERE b.item.id = i.id AND b.status = :status AND b.end < :now " +
+            "ORDER BY b.end DESC LIMIT 1) " +
+            "LEFT JOIN Booking nb ON o.id = :userId AND nb.id = (" +
+            "SELECT b.id FROM Booking b WHERE b.item.id = i.id AND b.status = :status AND b.start > :now " +
+            "ORDER BY b.start ASC LIMIT 1) " +
+            "LEFT JOIN Comment c ON c.item.id = i.id " +
+            "LEFT JOIN c.author a " +
+            "WHERE i.id = :itemId " +
+            "ORDER BY c.id";
+
+    private static final String OWNER_ITEMS_QUERY = "SELECT i.id, i.name, i.description, i.available, i.requestId, " +
+            "o.id, o.name, o.email " +
+            "FROM Item i JOIN i.owner o " +
+            "WHERE o.id = :ownerId " +
+            "ORDER BY i.id";
+
+    private static final String ITEMS_BY_IDS_QUERY = "SELECT i.id, i.name, i.description, i.available, i.requestId, " +
+            "o.id, o.name, o.email " +
+            "FROM Item i JOIN i.owner o " +
+            "WHERE i.id IN :itemIds " +
+            "ORDER BY i.id";
+
+    private static final String OWNED_LAST_AND_NEXT_BOOKINGS_QUERY = "SELECT b.item.id, b.id, b.booker.id, " +
+            "b.start, b.end " +
+            "FROM Booking b " +
+            "WHERE b.item.id IN :itemIds AND b.item.owner.id = :userId AND (" +
+            "b.id = (SELECT b2.id FROM Booking b2 WHERE b2.item.id = b.item.id AND b2.status = :status " +
+            "AND b2.end < :now ORDER BY b2.end DESC LIMIT 1) " +
+            "OR b.id = (SELECT b2.id FROM Booking b2 WHERE b2.item.id = b.item.id AND b2.status = :status " +
+            "AND b2.start > :now ORDER BY b2.start ASC LIMIT 1))";
+
+    private static final String LAST_AND_NEXT_BOOKINGS_QUERY = "SELECT b.item.id, b.id, b.booker.id, b.start, b.end " +
+            "FROM Booking b " +
+            "WHERE b.item.id IN :itemIds AND (" +
+            "b.id = (SELECT b2.id FROM Booking b2 WHERE b2.item.id = b.item.id AND b2.status = :status " +
+            "AND b2.start < :now ORDER BY b2.start DESC LIMIT 1) " +
+            "OR b.id = (SELECT b2.id FROM Booking b2 WHERE b2.item.id = b.item.id AND b2.status = :status " +
+            "AND b2.start > :now ORDER BY b2.start ASC LIMIT 1))";
+
+    private static final String ITEM_COMMENTS_QUERY = "SELECT c.item.id, c.id, c.text, a.name, c.created " +
+            "FROM Comment c JOIN c.author a " +
+            "WHERE c.item.id IN :itemIds " +
+            "ORDER BY c.id";
+
+    private static final String TRIGRAM_SEARCH_QUERY = "SELECT i.id FROM items i " +
+            "WHERE i.is_available AND (i.name ILIKE :pattern OR i.description ILIKE :pattern) " +
+            "ORDER BY word_similarity(:text, i.name) DESC, word_similarity(:text, i.description) DESC, i.id";
+
+    private static final String SEARCH_QUERY = "SELECT i.id FROM Item i " +
+            "WHERE i.available = true " +
+            "AND (LOWER(i.name) LIKE :pattern ESCAPE '\\' OR LOWER(i.description) LIKE :pattern ESCAPE '\\') " +
+            "ORDER BY CASE WHEN LOWER(i.name) LIKE :pattern ESCAPE '\\' THEN 0 ELSE 1 END, i.id";
+
+    private final EntityManager entityManager;
+
+    @Override
+    public Optional<ItemDto> findItemDetails(Long itemId, Long userId, LocalDateTime now) {
+        List<Tuple> rows = entityManager.createQuery(ITEM_DETAILS_QUERY, Tuple.class)
+                .setParameter("itemId", itemId)
+                .setParameter("userId", userId)
+                .setParameter("status", BookingStatus.APPROVED)
+                .setParameter("now", now)
+                .getResultList();
+        if (rows.isEmpty()) {
+            return Optional.empty();
+        }
+
+        Tuple first = rows.get(0);
+        List<CommentDto> comments = new ArrayList<>();
+        for (Tuple row : rows) {
+            if (row.get(16) != null) {
+                comments.add(toCommentDto(row, 16));
+            }
+        }
+
+        return Optional.of(ItemDto.builder()
+                .id(first.get(0, Long.class))
+                .name(first.get(1, String.class))
+                .description(first.get(2, String.class))
+                .available(first.get(3, Boolean.class))
+                .requestId(first.get(4, Long.class))
+                .owner(new UserDto(first.get(5, Long.class), first.get(6, String.class), first.get(7, String.class)))
+                .lastBooking(toBookingShortDto(first, 8))
+                .nextBooking(toBookingShortDto(first, 12))
+                .comments(comments)
+                .build());
+    }
+
+    @Override
+    public List<ItemDto> findOwnerItems(Long ownerId, LocalDateTime now, int offset, int limit) {
+        List<ItemDto> items = entityManager.createQuery(OWNER_ITEMS_QUERY, Tuple.class)
+                .setParameter("ownerId", ownerId)
+                .setFirstResult(offset)
+                .setMaxResults(limit)
+                .getResultList().stream()
+                .map(ItemRepositoryCustomImpl::toItemDto)
+                .toList();
+        if (items.isEmpty()) {
+            return items;
+        }
+
+        Map<Long, ItemDto> itemsById = items.stream()
+                .collect(Collectors.toMap(ItemDto::getId, Function.identity()));
+
+        entityManager.createQuery(LAST_AND_NEXT_BOOKINGS_QUERY, Tuple.class)
+                .setParameter("itemIds", itemsById.keySet())
+                .setParameter("status", BookingStatus.APPROVED)
+                .setParameter("now", now)
+                .getResultList()
+                .forEach(row -> {
+                    ItemDto item = itemsById.get(row.get(0, Long.class));
+                    BookingShortDto booking = toBookingShortDto(row, 1);
+                    if (booking.getStart().isBefore(now)) {
+                        item.setLastBooking(booking);
+                    } else {
+                        item.setNextBooking(booking);
+                    }
+                });
+
+        addComments(itemsById);
+        return items;
+    }
+
+    @Override
+    public List<ItemDto> findItemsDetails(Collection<Long> itemIds, Long userId, LocalDateTime now) {
+        if (itemIds.isEmpty()) {
+            return List.of();
+        }
+        List<ItemDto> items = entityManager.createQuery(ITEMS_BY_IDS_QUERY, Tuple.class)
+                .setParameter("itemIds", itemIds)
+                .getResultList().stream()
+                .map(ItemRepositoryCustomImpl::toItemDto)
+                .toList();
+        if (items.isEmpty()) {
+            return items;
+        }
+
+        Map<Long, ItemDto> itemsById = items.stream()
+                .collect(Collectors.toMap(ItemDto::getId, Function.identity()));
+
+        entityManager.createQuery(OWNED_LAST_AND_NEXT_BOOKINGS_QUERY, Tuple.class)
+                .setParameter("itemIds", itemsById.keySet())
+                .setParameter("userId", userId)
+                .setParameter("status", BookingStatus.APPROVED)
+                .setParameter("now", now)
+                .getResultList()
+                .forEach(row -> {
+                    ItemDto item = itemsById.get(row.get(0, Long.class));
+                    BookingShortDto booking = toBookingShortDto(row, 1);
+                    if (booking.getEnd().isBefore(now)) {
+                        item.setLastBooking(booking);
+                    } else {
+                        item.setNextBooking(booking);
+                    }
+                });
+
+        addComments(itemsById);
+        return items;
+    }
+
+    private void addComments(Map<Long, ItemDto> itemsById) {
+        entityManager.createQuery(ITEM_COMMENTS_QUERY, Tuple.class)
+                .setParameter("itemIds", itemsById.keySet())
+                .getResultList()
+                .forEach(row -> itemsById.get(row.get(0, Long.class)).getComments().add(toCommentDto(row, 1)));
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public List<Long> searchAvailableIdsByTrigram(String text, int offset, int limit) {
+        List<Number> ids = entityManager.createNativeQuery(TRIGRAM_SEARCH_QUERY)
+                .setParameter("text", text)
+                .setParameter("pattern", containsPattern(text))
+                .setFirstResult(offset)
+                .setMaxResults(limit)
+                .getResultList();
+        return ids.stream()
+                .map(Number::longValue)
+                .toList();
+    }
+
+    @Override
+    public List<Long> searchAvailableIds(String text, int offset, int limit) {
+        return entityManager.createQuery(SEARCH_QUERY, Long.class)
+                .setParameter("pattern", containsPattern(text.toLowerCase(Locale.ROOT)))
+                .setFirstResult(offset)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    private static String containsPattern(String text) {
+        return "%" + text.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_") + "%";
+    }
+
+    private static ItemDto toItemDto(Tuple row) {
+        return ItemDto.builder()
+                .id(row.get(0, Long.class))
+                .name(row.get(1, String.class))
+                .description(row.get(2, String.class))
+                .available(row.get(3, Boolean.class))
+                .requestId(row.get(4, Long.class))
+                .owner(new UserDto(row.get(5, Long.class), row.get(6, String.class), row.get(7, String.class)))
+                .comments(new ArrayList<>())
+                .build();
+    }
+
+    private static CommentDto toCommentDto(Tuple row, int offset) {
+        return CommentDto.builder()
+                .id(row.get(offset, Long.class))
+                .text(row.get(offset + 1, String.class))
+                .authorName(row.get(offset + 2, String.class))
+                .created(row.get(offset + 3, LocalDateTime.class))
+                .build();
+    }
+
+    private static BookingShortDto toBookingShortDto(Tuple row, int offset) {
+        if (row.get(offset) == null) {
+            return null;
+        }
+        return BookingShortDto.builder()
+                .id(row.get(offset, Long.class))
+                .bookerId(row.get(offset + 1, Long.class))
+                .start(row.get(offset + 2, LocalDateTime.class))
+                .end(row.get(offset + 3, LocalDateTime.class))
+                .build();
+    }
+}
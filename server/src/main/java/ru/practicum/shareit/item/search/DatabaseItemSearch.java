@@ -0,0 +1,36 @@
+package ru.practicum.shareit.item.search;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.dialect.PostgreSQLDialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.repository.ItemRepository;
+
+import java.util.List;
+
+/**
+ * Searches in the database. When Hibernate talks to PostgreSQL the ranked trigram query uses the
+ * GIN indexes from {@code schema-postgresql.sql}; on other databases (H2 in tests) a portable
+ * {@code LIKE} query stands in.
+ */
+@Component
+@ConditionalOnProperty(name = "shareit.search.backend", havingValue = "database", matchIfMissing = true)
+public class DatabaseItemSearch implements ItemSearch {
+    private final ItemRepository itemRepository;
+    private final boolean trigram;
+
+    public DatabaseItemSearch(ItemRepository itemRepository, EntityManagerFactory entityManagerFactory) {
+        this.itemRepository = itemRepository;
+        this.trigram = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getJdbcServices()
+                .getDialect() instanceof PostgreSQLDialect;
+    }
+
+    @Override
+    public List<Long> search(String text, int offset, int limit) {
+        return trigram
+                ? itemRepository.searchAvailableIdsByTrigram(text, offset, limit)
+                : itemRepository.searchAvailableIds(text, offset, limit);
+    }
+}
@@ -0,0 +1,16 @@
+package ru.practicum.shareit.item.search;
+
+import java.util.List;
+
+/**
+ * Full-text lookup behind {@code GET /items/search}. Selected with {@code shareit.search.backend}:
+ * {@code database} (default) searches in the database, {@code index} serves from an in-process
+ * trigram index that only sees the writes of its own server.
+ */
+public interface ItemSearch {
+    /**
+     * Returns one page of ids of available items whose name or description contains {@code text},
+     * ignoring case, best match first.
+     */
+    List<Long> search(String text, int offset, int limit);
+}
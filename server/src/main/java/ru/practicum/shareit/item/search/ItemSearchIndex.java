@@ -0,0 +1,294 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Trigram inverted index over the name and description of available items. Every available item
+ * gets a dense slot; each trigram maps to a bit set of slots. A query intersects the bit sets of
+ * its trigrams and confirms the substring on the indexed text, so it returns exactly the ids the
+ * {@code LIKE '%text%'} query would. Callers still load the items from the database. Pages are
+ * ordered by id: the index does not rank.
+ *
+ * <p>A rebuild reads all items without holding the lock, so writes made meanwhile are recorded and
+ * replayed over the loaded snapshot; writes whose transaction commits during the read are recorded
+ * again on commit, in case the read missed them.
+ *
+ * <p>Writes reach the index through entity callbacks in this process only, so it suits a single
+ * server; with several servers behind the gateway each would miss the others' writes.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "shareit.search.backend", havingValue = "index")
+public class ItemSearchIndex implements ItemSearch {
+    private static final int GRAM = 3;
+    private static final char FIELD_SEPARATOR = '\u0000';
+
+    private final ItemRepository itemRepository;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Lock rebuildLock = new ReentrantLock();
+
+    private final Map<Long, Integer> slotsById = new HashMap<>();
+    private final List<Long> idsBySlot = new ArrayList<>();
+    private final List<String> textsBySlot = new ArrayList<>();
+    private final Deque<Integer> freeSlots = new ArrayDeque<>();
+    private final Map<String, BitSet> postings = new HashMap<>();
+    private final BitSet occupied = new BitSet();
+    private Map<Long, String> writesDuringRebuild;
+
+    public ItemSearchIndex(ItemRepository itemRepository) {
+        this.itemRepository = itemRepository;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        rebuildLock.lock();
+        try {
+            recordWrites(new HashMap<>());
+            List<Item> items;
+            try {
+                items = itemRepository.findAll();
+            } catch (RuntimeException e) {
+                recordWrites(null);
+                throw e;
+            }
+
+            lock.writeLock().lock();
+            try {
+                Map<Long, String> writes = writesDuringRebuild;
+                writesDuringRebuild = null;
+                slotsById.clear();
+                idsBySlot.clear();
+                textsBySlot.clear();
+                freeSlots.clear();
+                postings.clear();
+                occupied.clear();
+                items.forEach(this::put);
+                writes.forEach(this::replace);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        } finally {
+            rebuildLock.unlock();
+        }
+        log.info("Item search index built with {} available items", slotsById.size());
+    }
+
+    /**
+     * Re-indexes an item as it is written. If the surrounding transaction rolls back, the entries
+     * the transaction replaced are restored. Unavailable items are dropped from the index.
+     */
+    public void update(Item item) {
+        apply(item.getId(), Boolean.TRUE.equals(item.getAvailable()) ? document(item) : null);
+    }
+
+    public void remove(Item item) {
+        apply(item.getId(), null);
+    }
+
+    /**
+     * Drops the items of an owner who is being deleted. The schema deletes those items by cascade,
+     * so no entity callback reports them; call this before the owner's row is deleted.
+     */
+    public void removeOwnedBy(Long ownerId) {
+        itemRepository.findIdsByOwnerId(ownerId).forEach(id -> apply(id, null));
+    }
+
+    /**
+     * Returns the ids of available items whose name or description contains {@code text},
+     * ignoring case, in ascending order.
+     */
+    public List<Long> search(String text) {
+        String query = text.toLowerCase(Locale.ROOT);
+        lock.readLock().lock();
+        try {
+            BitSet candidates = (BitSet) occupied.clone();
+            for (String gram : grams(query)) {
+                BitSet posting = postings.get(gram);
+                if (posting == null) {
+                    return List.of();
+                }
+                candidates.and(posting);
+            }
+
+            List<Long> ids = new ArrayList<>();
+            for (int slot = candidates.nextSetBit(0); slot >= 0; slot = candidates.nextSetBit(slot + 1)) {
+                if (textsBySlot.get(slot).contains(query)) {
+                    ids.add(idsBySlot.get(slot));
+                }
+            }
+            ids.sort(null);
+            return ids;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public List<Long> search(String text, int offset, int limit) {
+        List<Long> ids = search(text);
+        if (offset >= ids.size()) {
+            return List.of();
+        }
+        return ids.subList(offset, Math.min(ids.size(), offset + limit));
+    }
+
+    private void put(Item item) {
+        if (Boolean.TRUE.equals(item.getAvailable())) {
+            add(item.getId(), document(item));
+        }
+    }
+
+    private void add(Long id, String text) {
+        int slot;
+        if (freeSlots.isEmpty()) {
+            slot = idsBySlot.size();
+            idsBySlot.add(id);
+            textsBySlot.add(text);
+        } else {
+            slot = freeSlots.pop();
+            idsBySlot.set(slot, id);
+            textsBySlot.set(slot, text);
+        }
+        slotsById.put(id, slot);
+        occupied.set(slot);
+        for (String gram : grams(text)) {
+            postings.computeIfAbsent(gram, key -> new BitSet()).set(slot);
+        }
+    }
+
+    private void apply(Long id, String text) {
+        lock.writeLock().lock();
+        try {
+            Integer slot = slotsById.get(id);
+            rememberForRollback(id, slot == null ? null : textsBySlot.get(slot));
+            replace(id, text);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void replace(Long id, String text) {
+        if (writesDuringRebuild != null) {
+            writesDuringRebuild.put(id, text);
+        }
+        delete(id);
+        if (text != null) {
+            add(id, text);
+        }
+    }
+
+    private void delete(Long id) {
+        Integer slot = slotsById.remove(id);
+        if (slot == null) {
+            return;
+        }
+        for (String gram : grams(textsBySlot.get(slot))) {
+            BitSet posting = postings.get(gram);
+            posting.clear(slot);
+            if (posting.isEmpty()) {
+                postings.remove(gram);
+            }
+        }
+        occupied.clear(slot);
+        idsBySlot.set(slot, null);
+        textsBySlot.set(slot, null);
+        freeSlots.push(slot);
+    }
+
+    private static String document(Item item) {
+        return (item.getName() + FIELD_SEPARATOR + item.getDescription()).toLowerCase(Locale.ROOT);
+    }
+
+    private static Set<String> grams(String text) {
+        Set<String> grams = new HashSet<>();
+        for (int i = 0; i + GRAM <= text.length(); i++) {
+            String gram = text.substring(i, i + GRAM);
+            if (gram.indexOf(FIELD_SEPARATOR) < 0) {
+                grams.add(gram);
+            }
+        }
+        return grams;
+    }
+
+    @SuppressWarnings("unchecked")
+    private void rememberForRollback(Long id, String previous) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        Map<Long, String> replaced = (Map<Long, String>) TransactionSynchronizationManager.getResource(this);
+        if (replaced == null) {
+            Map<Long, String> originals = new HashMap<>();
+            replaced = originals;
+            TransactionSynchronizationManager.bindResource(this, originals);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(ItemSearchIndex.this);
+                    if (status == STATUS_COMMITTED) {
+                        recordCommitted(originals.keySet());
+                    } else {
+                        restore(originals);
+                    }
+                }
+            });
+        }
+        if (!replaced.containsKey(id)) {
+            replaced.put(id, previous);
+        }
+    }
+
+    private void recordWrites(Map<Long, String> writes) {
+        lock.writeLock().lock();
+        try {
+            writesDuringRebuild = writes;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void recordCommitted(Set<Long> ids) {
+        lock.writeLock().lock();
+        try {
+            if (writesDuringRebuild != null) {
+                for (Long id : ids) {
+                    Integer slot = slotsById.get(id);
+                    writesDuringRebuild.put(id, slot == null ? null : textsBySlot.get(slot));
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void restore(Map<Long, String> originals) {
+        lock.writeLock().lock();
+        try {
+            originals.forEach(this::replace);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+}
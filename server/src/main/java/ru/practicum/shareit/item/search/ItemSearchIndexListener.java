@@ -0,0 +1,31 @@
+package ru.practicum.shareit.item.search;
+
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.ObjectProvider;
+import ru.practicum.shareit.item.model.Item;
+
+/**
+ * Keeps {@link ItemSearchIndex} in step with every write to {@link Item}, whichever code path made
+ * it. The index is looked up lazily because it depends on the repositories that the entity
+ * manager factory creating this listener backs.
+ */
+public class ItemSearchIndexListener {
+    private final ObjectProvider<ItemSearchIndex> searchIndex;
+
+    public ItemSearchIndexListener(ObjectProvider<ItemSearchIndex> searchIndex) {
+        this.searchIndex = searchIndex;
+    }
+
+    @PostPersist
+    @PostUpdate
+    public void onWrite(Item item) {
+        searchIndex.ifAvailable(index -> index.update(item));
+    }
+
+    @PostRemove
+    public void onRemove(Item item) {
+        searchIndex.ifAvailable(index -> index.remove(item));
+    }
+}
@@ -0,0 +1,118 @@
+package ru.practicum.shareit.item.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.DatabindException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.item.dto.ItemBulkResultDto;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.user.index.UserIdIndex;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Imports items from a JSON array or an NDJSON stream one element at a time, so only the current
+ * chunk is held in memory. Each chunk is saved in its own transaction through
+ * {@link ItemService#addItems}; rows that fail validation are reported and skipped, and a chunk the
+ * database rejects is retried row by row so that only the offending rows fail.
+ */
+@Slf4j
+@Service
+public class ItemBulkImporter {
+    private final ObjectReader itemReader;
+    private final ItemService itemService;
+    private final UserIdIndex userIdIndex;
+    private final int chunkSize;
+
+    @Autowired
+    public ItemBulkImporter(ObjectMapper objectMapper, ItemService itemService, UserIdIndex userIdIndex,
+                            @Value("${shareit.item-import.chunk-size:500}") int chunkSize) {
+        this.itemReader = objectMapper.readerFor(ItemDto.class);
+        this.itemService = itemService;
+        this.userIdIndex = userIdIndex;
+        this.chunkSize = chunkSize;
+    }
+
+    public ItemBulkResultDto importItems(Long userId, InputStream body) throws IOException {
+        userIdIndex.findById(userId)
+                .orElseThrow(() -> new NotFoundException("Пользователь с id " + userId + " не найден"));
+
+        ItemBulkResultDto result = new ItemBulkResultDto();
+        List<ItemDto> chunk = new ArrayList<>(chunkSize);
+        List<Integer> chunkRows = new ArrayList<>(chunkSize);
+        int row = 0;
+        try (MappingIterator<ItemDto> elements = itemReader.readValues(body)) {
+            while (true) {
+                ItemDto itemDto;
+                try {
+                    if (!elements.hasNextValue()) {
+                        break;
+                    }
+                    itemDto = elements.nextValue();
+                } catch (DatabindException e) {
+                    // The element is well-formed JSON of the wrong shape: the iterator skips past it.
+                    result.addFailed(row++, e.getOriginalMessage());
+                    continue;
+                } catch (JsonProcessingException e) {
+                    result.addFailed(row, "Malformed JSON, import stopped: " + e.getOriginalMessage());
+                    break;
+                }
+
+                if (itemDto == null) {
+                    result.addFailed(row++, "Item cannot be null");
+                    continue;
+                }
+                try {
+                    ItemServiceImpl.validateItemData(itemDto);
+                } catch (IllegalArgumentException e) {
+                    result.addFailed(row++, e.getMessage());
+                    continue;
+                }
+                itemDto.setId(null);
+                chunk.add(itemDto);
+                chunkRows.add(row++);
+                if (chunk.size() == chunkSize) {
+                    save(userId, chunk, chunkRows, result);
+                }
+            }
+        }
+        save(userId, chunk, chunkRows, result);
+
+        result.getRows().sort(Comparator.comparingInt(ItemBulkResultDto.Row::getRow));
+        log.info("Imported {} of {} items for user {}", result.getCreated(), result.getReceived(), userId);
+        return result;
+    }
+
+    private void save(Long userId, List<ItemDto> chunk, List<Integer> chunkRows, ItemBulkResultDto result) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        try {
+            List<ItemDto> saved = itemService.addItems(userId, chunk);
+            for (int i = 0; i < saved.size(); i++) {
+                result.addCreated(chunkRows.get(i), saved.get(i).getId());
+            }
+        } catch (RuntimeException e) {
+            log.warn("Chunk of {} items rejected ({}), saving them one by one", chunk.size(), e.getMessage());
+            for (int i = 0; i < chunk.size(); i++) {
+                try {
+                    result.addCreated(chunkRows.get(i), itemService.addItem(userId, chunk.get(i)).getId());
+                } catch (RuntimeException rowError) {
+                    result.addFailed(chunkRows.get(i), rowError.getMessage());
+                }
+            }
+        }
+        chunk.clear();
+        chunkRows.clear();
+    }
+}
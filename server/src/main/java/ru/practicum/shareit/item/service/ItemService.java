@@ -11,6 +11,8 @@ public interface ItemService {
 
     ItemDto addItem(Long userID, ItemDto itemDto);
 
+    List<ItemDto> addItems(Long userId, List<ItemDto> itemDtos);
+
     @Transactional
     CommentDto addComment(Long bookerId, Long itemId, CommentDto dto);
 
@@ -18,7 +20,9 @@ public interface ItemService {
 
     ItemDto getItem(Long itemId, Long ownerId);
 
-    List<ItemDto> getItemsByOwnerId(Long ownerId);
+    List<ItemDto> getItems(List<Long> itemIds, Long userId);
+
+    List<ItemDto> getItemsByOwnerId(Long ownerId, Integer from, Integer size);
 
-    List<ItemDto> searchItems(String text);
+    List<ItemDto> searchItems(String text, Integer from, Integer size);
 }
\ No newline at end of file
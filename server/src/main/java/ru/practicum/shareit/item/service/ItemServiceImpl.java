@@ -7,6 +7,8 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.server.ResponseStatusException;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.common.BatchIds;
+import ru.practicum.shareit.config.EntityCacheEvictor;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.exception.ValidationException;
 import ru.practicum.shareit.item.dto.CommentDto;
@@ -17,11 +19,13 @@ import ru.practicum.shareit.item.mapper.ItemMapper;
 import ru.practicum.shareit.item.model.Comment;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.search.ItemSearch;
+import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.request.repository.ItemRequestRepository;
 import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.index.UserIdIndex;
 import ru.practicum.shareit.user.mapper.UserMapper;
 import ru.practicum.shareit.user.model.User;
-import ru.practicum.shareit.user.repository.UserRepository;
 import ru.practicum.shareit.booking.state.BookingStatus;
 import ru.practicum.shareit.booking.repository.BookingRepository;
 import ru.practicum.shareit.booking.dto.BookingShortDto;
@@ -29,10 +33,12 @@ import ru.practicum.shareit.item.repository.CommentRepository;
 
 import java.time.LocalDateTime;
 import java.util.Collections;
-import java.util.Comparator;
 import java.util.List;
-import java.util.stream.Collectors;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Slf4j
 @Service
@@ -40,22 +46,26 @@ import java.util.Map;
 public class ItemServiceImpl implements ItemService {
 
     private final ItemRepository itemRepository;
-    private final UserRepository userRepository;
     private final BookingRepository bookingRepository;
     private final CommentRepository commentRepository;
     private final ItemRequestRepository requestRepository;
     private final ItemMapper itemMapper;
     private final UserMapper userMapper;
+    private final ItemSearch itemSearch;
+    private final UserIdIndex userIdIndex;
+    private final EntityCacheEvictor entityCacheEvictor;
 
     @Autowired
-    public ItemServiceImpl(ItemRepository itemRepository, UserRepository userRepository, BookingRepository bookingRepository, CommentRepository commentRepository, ItemRequestRepository itemRequestRepository, ItemRequestRepository requestRepository, ItemMapper itemMapper, UserMapper userMapper) {
+    public ItemServiceImpl(ItemRepository itemRepository, BookingRepository bookingRepository, CommentRepository commentRepository, ItemRequestRepository itemRequestRepository, ItemRequestRepository requestRepository, ItemMapper itemMapper, UserMapper userMapper, ItemSearch itemSearch, UserIdIndex userIdIndex, EntityCacheEvictor entityCacheEvictor) {
         this.itemRepository = itemRepository;
-        this.userRepository = userRepository;
         this.bookingRepository = bookingRepository;
         this.commentRepository = commentRepository;
         this.requestRepository = requestRepository;
         this.itemMapper = itemMapper;
         this.userMapper = userMapper;
+        this.itemSearch = itemSearch;
+        this.userIdIndex = userIdIndex;
+        this.entityCacheEvictor = entityCacheEvictor;
     }
 
     private Item findItemById(Long itemId) {
@@ -89,13 +99,56 @@ public class ItemServiceImpl implements ItemService {
         return result;
     }
 
+    /**
+     * Saves all the items in one transaction. Ids come from a pooled sequence, so the inserts go to
+     * the database as JDBC batches of {@code hibernate.jdbc.batch_size} at flush.
+     */
+    @Override
+    @Transactional
+    public List<ItemDto> addItems(Long userId, List<ItemDto> itemDtos) {
+        itemDtos.forEach(ItemServiceImpl::validateItemData);
+        User owner = getUserOrThrow(userId);
+        checkRequestsExist(itemDtos);
+
+        List<Item> items = itemDtos.stream()
+                .map(itemDto -> {
+                    Item item = itemMapper.toEntity(itemDto);
+                    item.setId(null);
+                    item.setOwner(owner);
+                    return item;
+                })
+                .toList();
+        return itemRepository.saveAll(items).stream()
+                .map(item -> itemMapper.toFullDto(item, null, null, Collections.emptyList()))
+                .collect(Collectors.toList());
+    }
+
+    private void checkRequestsExist(List<ItemDto> itemDtos) {
+        Set<Long> requestIds = itemDtos.stream()
+                .map(ItemDto::getRequestId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        if (requestIds.isEmpty()) {
+            return;
+        }
+        Set<Long> found = requestRepository.findAllById(requestIds).stream()
+                .map(ItemRequest::getId)
+                .collect(Collectors.toSet());
+        requestIds.stream()
+                .filter(requestId -> !found.contains(requestId))
+                .findFirst()
+                .ifPresent(requestId -> {
+                    throw new NotFoundException(String.format("Request with id %d not found", requestId));
+                });
+    }
+
     private Item createItem(Item item, Long ownerId) {
         User owner = getUserOrThrow(ownerId);
         item.setOwner(owner);
         return itemRepository.save(item);
     }
 
-    private void validateItemData(ItemDto itemDto) {
+    static void validateItemData(ItemDto itemDto) {
         if (itemDto.getName() == null || itemDto.getName().isBlank()) {
             throw new IllegalArgumentException("Item name cannot be empty");
         }
@@ -134,7 +187,7 @@ public class ItemServiceImpl implements ItemService {
     }
 
     private User getUserOrThrow(Long userId) {
-        return userRepository.findById(userId)
+        return userIdIndex.findById(userId)
                 .orElseThrow(() -> new NotFoundException("Пользователь не найден"));
     }
 
@@ -193,6 +246,7 @@ public class ItemServiceImpl implements ItemService {
         }
 
         Item updatedItem = itemRepository.save(existingItem);
+        entityCacheEvictor.evict(Item.class, itemId);
 
         LocalDateTime now = LocalDateTime.now();
         BookingShortDto lastBooking = bookingRepository
@@ -223,96 +277,41 @@ public class ItemServiceImpl implements ItemService {
     @Override
     @Transactional(readOnly = true)
     public ItemDto getItem(Long itemId, Long ownerId) {
-        Item item = findItemById(itemId);
-        LocalDateTime now = LocalDateTime.now();
-
-        List<CommentDto> comments = commentRepository.findByItemIdWithAuthor(itemId).stream()
-                .map(CommentMapper::mapCommentToDto)
-                .collect(Collectors.toList());
+        ItemDto item = itemRepository.findItemDetails(itemId, ownerId, LocalDateTime.now())
+                .orElseThrow(() -> new NotFoundException("Вещь с id " + itemId + " не найдена"));
 
-        BookingShortDto lastBooking = null;
-        BookingShortDto nextBooking = null;
-
-        if (item.getOwner().getId().equals(ownerId)) {
-            lastBooking = bookingRepository
-                    .findFirstByItemIdAndItemOwnerIdAndStatusInAndEndBeforeOrderByEndDesc(
-                            item.getId(),
-                            ownerId,
-                            List.of(BookingStatus.APPROVED),
-                            now)
-                    .map(itemMapper::toBookingShortDto)
-                    .orElse(null);
-
-            nextBooking = bookingRepository
-                    .findFirstByItemIdAndItemOwnerIdAndStatusInAndStartAfterOrderByStartAsc(
-                            item.getId(),
-                            ownerId,
-                            List.of(BookingStatus.APPROVED),
-                            now)
-                    .map(itemMapper::toBookingShortDto)
-                    .orElse(null);
-        }
+        log.debug("Returning item with lastBooking: {}, nextBooking: {}", item.getLastBooking(), item.getNextBooking());
+        return item;
+    }
 
-        log.debug("Returning item with lastBooking: {}, nextBooking: {}", lastBooking, nextBooking);
-        return itemMapper.toFullDto(item, lastBooking, nextBooking, comments);
+    @Override
+    public List<ItemDto> getItems(List<Long> itemIds, Long userId) {
+        List<Long> ids = BatchIds.distinct(itemIds);
+        return BatchIds.inRequestedOrder(ids, itemRepository.findItemsDetails(ids, userId, LocalDateTime.now()),
+                ItemDto::getId);
     }
 
     @Override
-    public List<ItemDto> getItemsByOwnerId(Long ownerId) {
-        if (!userRepository.existsById(ownerId)) {
+    public List<ItemDto> getItemsByOwnerId(Long ownerId, Integer from, Integer size) {
+        if (userIdIndex.findById(ownerId).isEmpty()) {
             throw new NotFoundException("Пользователь с id " + ownerId + " не найден");
         }
 
-        List<Item> items = itemRepository.findByOwnerId(ownerId);
-        List<Long> itemIds = items.stream().map(Item::getId).collect(Collectors.toList());
-        LocalDateTime now = LocalDateTime.now();
-
-        Map<Long, List<CommentDto>> commentsByItem = commentRepository.findByItemIdIn(itemIds).stream()
-                .collect(Collectors.groupingBy(
-                        comment -> comment.getItem().getId(),
-                        Collectors.mapping(CommentMapper::mapCommentToDto, Collectors.toList())
-                ));
-
-        List<Booking> allBookings = bookingRepository.findByItemIdInAndStatusIn(
-                itemIds,
-                List.of(BookingStatus.APPROVED)
-        );
-
-        Map<Long, List<Booking>> bookingsByItem = allBookings.stream()
-                .collect(Collectors.groupingBy(
-                        booking -> booking.getItem().getId()
-                ));
-
-        return items.stream()
-                .map(item -> {
-                    List<Booking> itemBookings = bookingsByItem.getOrDefault(item.getId(), Collections.emptyList());
-
-                    BookingShortDto lastBooking = itemBookings.stream()
-                            .filter(b -> b.getStart().isBefore(now))
-                            .max(Comparator.comparing(Booking::getStart))
-                            .map(itemMapper::toBookingShortDto)
-                            .orElse(null);
-
-                    BookingShortDto nextBooking = itemBookings.stream()
-                            .filter(b -> b.getStart().isAfter(now))
-                            .min(Comparator.comparing(Booking::getStart))
-                            .map(itemMapper::toBookingShortDto)
-                            .orElse(null);
-
-                    return itemMapper.toFullDto(
-                            item,
-                            lastBooking,
-                            nextBooking,
-                            commentsByItem.getOrDefault(item.getId(), Collections.emptyList())
-                    );
-                })
-                .collect(Collectors.toList());
+        return itemRepository.findOwnerItems(ownerId, LocalDateTime.now(), from / size * size, size);
     }
 
     @Override
     @Transactional(readOnly = true)
-    public List<ItemDto> searchItems(String text) {
-        return itemRepository.searchAvailableItems(text.toLowerCase()).stream()
+    public List<ItemDto> searchItems(String text, Integer from, Integer size) {
+        List<Long> ids = itemSearch.search(text, from / size * size, size);
+        if (ids.isEmpty()) {
+            return Collections.emptyList();
+        }
+        Map<Long, Item> itemsById = itemRepository.findAllWithOwnerByIdIn(ids).stream()
+                .collect(Collectors.toMap(Item::getId, Function.identity()));
+        return ids.stream()
+                .map(itemsById::get)
+                .filter(item -> item != null && item.getAvailable())
                 .map(item -> itemMapper.toFullDto(item, null, null, Collections.emptyList()))
                 .collect(Collectors.toList());
     }
@@ -16,6 +16,7 @@ import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.dto.ItemRequestMapper;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.request.repository.ItemRequestRepository;
+import ru.practicum.shareit.user.index.UserIdIndex;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 
@@ -29,6 +30,7 @@ import java.util.stream.Collectors;
 public class ItemRequestServiceImpl implements ItemRequestService {
 
     private final UserRepository userRepository;
+    private final UserIdIndex userIdIndex;
     private final ItemRequestRepository requestRepository;
     private final ItemRepository itemRepository;
     private final ItemMapper itemMapper;
@@ -155,7 +157,7 @@ public class ItemRequestServiceImpl implements ItemRequestService {
     }
 
     private void getUserOrThrow(Long userId) {
-        userRepository.findById(userId)
+        userIdIndex.findById(userId)
                 .orElseThrow(() -> {
                     log.error("User not found: {}", userId);
                     return new NotFoundException("User with id=" + userId + " not found");
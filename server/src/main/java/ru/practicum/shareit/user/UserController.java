@@ -30,6 +30,11 @@ public class UserController {
         return ResponseEntity.ok(userService.getAllUsers());
     }
 
+    @GetMapping(params = "ids")
+    public ResponseEntity<List<UserDto>> getUsers(@RequestParam List<Long> ids) {
+        return ResponseEntity.ok(userService.getUsers(ids));
+    }
+
     @GetMapping("/{userId}")
     public ResponseEntity<UserDto> getUser(@PathVariable Long userId) {
         return ResponseEntity.ok(userService.getUser(userId));
@@ -0,0 +1,152 @@
+package ru.practicum.shareit.user.index;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Bit set of the ids of existing users, so that lookups of ids that were never issued or have been
+ * deleted are answered without a query. It may only err towards "might exist": ids are added as soon
+ * as they are persisted or loaded, removed only once the deleting transaction commits, and ids above
+ * the highest one seen always go to the database.
+ *
+ * <p>Only for a single server: it treats every id below the highest one seen as known, while other
+ * servers create users in id blocks of their own. Off unless {@code shareit.user-index.enabled} is
+ * true. The bits are kept in pages of {@value #PAGE_SIZE} ids that exist only while they hold a user,
+ * so memory follows the number of users rather than the largest id.
+ */
+@Slf4j
+@Component
+public class UserIdIndex {
+    private static final int PAGE_SHIFT = 10;
+    private static final int PAGE_SIZE = 1 << PAGE_SHIFT;
+
+    private final UserRepository userRepository;
+    private final boolean enabled;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final Map<Long, BitSet> pages = new HashMap<>();
+    private long highestId;
+    private volatile boolean ready;
+
+    @Autowired
+    public UserIdIndex(UserRepository userRepository,
+                       @Value("${shareit.user-index.enabled:false}") boolean enabled) {
+        this.userRepository = userRepository;
+        this.enabled = enabled;
+    }
+
+    /**
+     * Loads the ids of all users. Ids added while the query runs are kept, and a user deleted
+     * meanwhile only costs a query later, so writes need not be paused.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        if (!enabled) {
+            return;
+        }
+        List<Long> loaded = userRepository.findAllIds();
+        lock.writeLock().lock();
+        try {
+            loaded.forEach(this::set);
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("User id index built with {} users", loaded.size());
+    }
+
+    /**
+     * Same as {@link UserRepository#findById}, but empty without a query when the id is known to be
+     * absent.
+     */
+    public Optional<User> findById(Long userId) {
+        return mightExist(userId) ? userRepository.findById(userId) : Optional.empty();
+    }
+
+    public boolean mightExist(Long userId) {
+        if (!ready || userId == null) {
+            return true;
+        }
+        if (userId <= 0) {
+            return false;
+        }
+        lock.readLock().lock();
+        try {
+            if (userId > highestId) {
+                return true;
+            }
+            BitSet page = pages.get(userId >>> PAGE_SHIFT);
+            return page != null && page.get(offset(userId));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public void add(Long userId) {
+        lock.writeLock().lock();
+        try {
+            set(userId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long userId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            clear(userId);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                clear(userId);
+            }
+        });
+    }
+
+    private void set(Long userId) {
+        if (userId == null || userId <= 0) {
+            return;
+        }
+        highestId = Math.max(highestId, userId);
+        pages.computeIfAbsent(userId >>> PAGE_SHIFT, page -> new BitSet(PAGE_SIZE)).set(offset(userId));
+    }
+
+    private void clear(Long userId) {
+        if (userId == null || userId <= 0) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            BitSet page = pages.get(userId >>> PAGE_SHIFT);
+            if (page != null) {
+                page.clear(offset(userId));
+                if (page.isEmpty()) {
+                    pages.remove(userId >>> PAGE_SHIFT);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private static int offset(long userId) {
+        return (int) (userId & (PAGE_SIZE - 1));
+    }
+}
@@ -0,0 +1,31 @@
+package ru.practicum.shareit.user.index;
+
+import jakarta.persistence.PostLoad;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import org.springframework.beans.factory.ObjectProvider;
+import ru.practicum.shareit.user.model.User;
+
+/**
+ * Keeps {@link UserIdIndex} in step with users as they are written, deleted or loaded. The index is
+ * looked up lazily because it depends on the repository that the entity manager factory creating
+ * this listener backs.
+ */
+public class UserIdIndexListener {
+    private final ObjectProvider<UserIdIndex> userIdIndex;
+
+    public UserIdIndexListener(ObjectProvider<UserIdIndex> userIdIndex) {
+        this.userIdIndex = userIdIndex;
+    }
+
+    @PostPersist
+    @PostLoad
+    public void onPersistOrLoad(User user) {
+        userIdIndex.ifAvailable(index -> index.add(user.getId()));
+    }
+
+    @PostRemove
+    public void onRemove(User user) {
+        userIdIndex.ifAvailable(index -> index.remove(user.getId()));
+    }
+}
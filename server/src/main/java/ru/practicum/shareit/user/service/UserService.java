@@ -15,5 +15,7 @@ public interface UserService {
 
     List<UserDto> getAllUsers();
 
+    List<UserDto> getUsers(List<Long> userIds);
+
     void deleteUser(Long userId);
 }
\ No newline at end of file
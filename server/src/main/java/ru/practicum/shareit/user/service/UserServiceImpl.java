@@ -1,12 +1,18 @@
 package ru.practicum.shareit.user.service;
 
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.common.BatchIds;
+import ru.practicum.shareit.config.EntityCacheEvictor;
 import ru.practicum.shareit.exception.ConflictException;
 import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.search.ItemSearchIndex;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.dto.UserCreateDto;
+import ru.practicum.shareit.user.index.UserIdIndex;
 import ru.practicum.shareit.user.mapper.UserMapper;
 import ru.practicum.shareit.user.mapper.UserMappingUtils;
 import ru.practicum.shareit.user.model.User;
@@ -22,26 +28,35 @@ public class UserServiceImpl implements UserService {
     private final UserRepository userRepository;
     private final UserMapper userMapper;
     private final UserMappingUtils userMappingUtils;
+    private final UserIdIndex userIdIndex;
+    private final EntityCacheEvictor entityCacheEvictor;
+    private final ObjectProvider<ItemSearchIndex> itemSearchIndex;
 
     @Autowired
-    public UserServiceImpl(UserRepository userRepository, UserMapper userMapper, UserMappingUtils userMappingUtils) {
+    public UserServiceImpl(UserRepository userRepository, UserMapper userMapper, UserMappingUtils userMappingUtils,
+                           UserIdIndex userIdIndex, EntityCacheEvictor entityCacheEvictor,
+                           ObjectProvider<ItemSearchIndex> itemSearchIndex) {
         this.userRepository = userRepository;
         this.userMapper = userMapper;
         this.userMappingUtils = userMappingUtils;
+        this.userIdIndex = userIdIndex;
+        this.entityCacheEvictor = entityCacheEvictor;
+        this.itemSearchIndex = itemSearchIndex;
     }
 
     @Override
     @Transactional
     public UserDto createUser(UserCreateDto createDto) {
         User user = userMapper.fromCreateDto(createDto);
-        User createdUser = userRepository.save(user);
+        // Flushed here so that a duplicate email fails inside this call rather than at commit.
+        User createdUser = userRepository.saveAndFlush(user);
         return userMappingUtils.toDto(createdUser);
     }
 
     @Override
     @Transactional
     public UserDto updateUser(Long userId, UserCreateDto updateDto) {
-        User existingUser = userRepository.findById(userId)
+        User existingUser = userIdIndex.findById(userId)
                 .orElseThrow(() -> new NotFoundException("Пользователь с id " + userId + " не найден"));
 
         if (updateDto.getName() != null) {
@@ -55,12 +70,13 @@ public class UserServiceImpl implements UserService {
         }
 
         User updatedUser = userRepository.save(existingUser);
+        entityCacheEvictor.evict(User.class, userId);
         return userMappingUtils.toDto(updatedUser);
     }
 
     @Override
     public UserDto getUser(Long userId) {
-        User user = userRepository.findById(userId)
+        User user = userIdIndex.findById(userId)
                 .orElseThrow(() -> new NotFoundException("Пользователь с id " + userId + " не найден"));
         return userMappingUtils.toDto(user);
     }
@@ -72,12 +88,24 @@ public class UserServiceImpl implements UserService {
                 .collect(Collectors.toList());
     }
 
+    @Override
+    public List<UserDto> getUsers(List<Long> userIds) {
+        List<Long> ids = BatchIds.distinct(userIds);
+        return BatchIds.inRequestedOrder(ids, userRepository.findAllById(ids), User::getId).stream()
+                .map(userMappingUtils::toDto)
+                .collect(Collectors.toList());
+    }
+
     @Override
     @Transactional
     public void deleteUser(Long userId) {
-        if (!userRepository.existsById(userId)) {
+        if (!userIdIndex.mightExist(userId) || !userRepository.existsById(userId)) {
             throw new NotFoundException("Пользователь с id " + userId + " не найден");
         }
+        // The schema cascades the delete to the user's items, which Hibernate does not see.
+        itemSearchIndex.ifAvailable(index -> index.removeOwnedBy(userId));
         userRepository.deleteById(userId);
+        entityCacheEvictor.evict(User.class, userId);
+        entityCacheEvictor.evictAll(Item.class);
     }
 }
\ No newline at end of file
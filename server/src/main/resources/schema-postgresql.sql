@@ -0,0 +1,51 @@
+CREATE EXTENSION IF NOT EXISTS btree_gist;
+
+-- Runs on every start, so the constraint is added only once. If approved bookings already overlap,
+-- startup stops and names them: which of two confirmed rentals to cancel is not for a schema script
+-- to decide. The block is quoted with '' rather than $$: the script runner splits statements on ';'
+-- everywhere except inside single quotes.
+DO '
+DECLARE
+    conflicts TEXT;
+BEGIN
+    IF NOT EXISTS (SELECT 1 FROM pg_constraint WHERE conname = ''bookings_no_approved_overlap'') THEN
+        SELECT string_agg(earlier.id || '' and '' || later.id, '', '' ORDER BY earlier.id, later.id)
+        INTO conflicts
+        FROM bookings earlier
+        JOIN bookings later ON later.item_id = earlier.item_id AND later.id > earlier.id
+        WHERE earlier.status = ''APPROVED''
+          AND later.status = ''APPROVED''
+          AND tsrange(earlier.start_date, earlier.end_date, ''[]'')
+              && tsrange(later.start_date, later.end_date, ''[]'');
+
+        IF conflicts IS NOT NULL THEN
+            RAISE EXCEPTION ''Approved bookings overlap (%): reject or reschedule one of each pair, then restart'',
+                conflicts;
+        END IF;
+
+        ALTER TABLE bookings ADD CONSTRAINT bookings_no_approved_overlap
+            EXCLUDE USING gist (item_id WITH =, tsrange(start_date, end_date, ''[]'') WITH &&)
+            WHERE (status = ''APPROVED'');
+    END IF;
+END';
+
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+CREATE INDEX IF NOT EXISTS idx_items_name_trgm ON items USING gin (name gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_items_description_trgm ON items USING gin (description gin_trgm_ops);
+
+-- Tables filled while ids came from identity columns: move each sequence up to the highest existing
+-- id. Hibernate's pooled optimizer hands out the block ending at the next value, here MAX(id) + 50,
+-- so new ids start right after the existing rows. A sequence that was never called hands out its
+-- current value as is, so it is moved even when it equals MAX(id). Once a sequence is ahead this
+-- does nothing, and it never moves one back under a server that is already running.
+SELECT setval('users_seq', max_id) FROM (SELECT MAX(id) AS max_id FROM users) existing, users_seq
+    WHERE max_id > last_value OR (max_id = last_value AND NOT is_called);
+SELECT setval('requests_seq', max_id) FROM (SELECT MAX(id) AS max_id FROM requests) existing, requests_seq
+    WHERE max_id > last_value OR (max_id = last_value AND NOT is_called);
+SELECT setval('items_seq', max_id) FROM (SELECT MAX(id) AS max_id FROM items) existing, items_seq
+    WHERE max_id > last_value OR (max_id = last_value AND NOT is_called);
+SELECT setval('bookings_seq', max_id) FROM (SELECT MAX(id) AS max_id FROM bookings) existing, bookings_seq
+    WHERE max_id > last_value OR (max_id = last_value AND NOT is_called);
+SELECT setval('comments_seq', max_id) FROM (SELECT MAX(id) AS max_id FROM comments) existing, comments_seq
+    WHERE max_id > last_value OR (max_id = last_value AND NOT is_called);
@@ -1,10 +1,16 @@
+CREATE SEQUENCE IF NOT EXISTS users_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS requests_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS items_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS bookings_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS comments_seq START WITH 1 INCREMENT BY 50;
+
 CREATE TABLE IF NOT EXISTS users (
     id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
     name VARCHAR(255) NOT NULL,
     email VARCHAR(255) NOT NULL UNIQUE
 );
 
-CREATE TABLE requests (
+CREATE TABLE IF NOT EXISTS requests (
     id BIGINT PRIMARY KEY,
     description VARCHAR(512) NOT NULL,
     requestor_id BIGINT NOT NULL,
@@ -35,6 +41,8 @@ CREATE TABLE IF NOT EXISTS bookings (
     CONSTRAINT valid_dates CHECK (end_date > start_date)
 );
 
+CREATE INDEX IF NOT EXISTS idx_bookings_item_status_dates ON bookings (item_id, status, start_date, end_date);
+
 CREATE TABLE IF NOT EXISTS comments (
     id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
     text TEXT NOT NULL,
@@ -0,0 +1,141 @@
+package ru.practicum.shareit;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import ru.practicum.shareit.booking.dto.BookingRequestDto;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.state.BookingStatus;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+public class BookingConcurrencyIntegrationTest {
+    private static final int REQUESTS = 1000;
+    private static final int THREADS = 32;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private User owner;
+    private User booker;
+    private Item item;
+
+    @BeforeEach
+    void setUp() {
+        owner = userRepository.save(User.builder()
+                .name("Owner")
+                .email("concurrency-owner@example.com")
+                .build());
+
+        booker = userRepository.save(User.builder()
+                .name("Booker")
+                .email("concurrency-booker@example.com")
+                .build());
+
+        item = itemRepository.save(Item.builder()
+                .name("Item")
+                .description("Description")
+                .available(true)
+                .owner(owner)
+                .build());
+    }
+
+    @AfterEach
+    void tearDown() {
+        bookingRepository.deleteAll();
+        itemRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void parallelCreateAndApprove_shouldNeverApproveOverlappingBookings() throws Exception {
+        LocalDateTime base = LocalDateTime.now().plusDays(1).withNano(0);
+        Random random = new Random(42);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < REQUESTS; i++) {
+                LocalDateTime start = base.plusHours(random.nextInt(500));
+                LocalDateTime end = start.plusHours(1 + random.nextInt(48));
+                futures.add(executor.submit(() -> {
+                    createAndApprove(new BookingRequestDto(item.getId(), start, end));
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        List<Booking> approved = bookingRepository.findAll().stream()
+                .filter(booking -> booking.getStatus() == BookingStatus.APPROVED)
+                .sorted(Comparator.comparing(Booking::getStart))
+                .toList();
+
+        assertThat(approved).isNotEmpty();
+        for (int i = 1; i < approved.size(); i++) {
+            assertThat(approved.get(i).getStart()).isAfter(approved.get(i - 1).getEnd());
+        }
+    }
+
+    private void createAndApprove(BookingRequestDto request) throws Exception {
+        MvcResult created = mockMvc.perform(post("/bookings")
+                        .header("X-Sharer-User-Id", booker.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andReturn();
+        assertThat(created.getResponse().getStatus()).isIn(200, 400);
+        if (created.getResponse().getStatus() != 200) {
+            return;
+        }
+
+        JsonNode booking = objectMapper.readTree(created.getResponse().getContentAsString());
+        MvcResult approved = mockMvc.perform(patch("/bookings/{bookingId}", booking.get("id").asLong())
+                        .header("X-Sharer-User-Id", owner.getId())
+                        .param("approved", "true"))
+                .andReturn();
+        assertThat(approved.getResponse().getStatus()).isIn(200, 400);
+    }
+}
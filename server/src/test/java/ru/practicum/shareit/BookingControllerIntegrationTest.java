@@ -1,6 +1,11 @@
 package ru.practicum.shareit;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -10,6 +15,8 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.booking.dto.BookingRequestDto;
 import ru.practicum.shareit.booking.model.Booking;
@@ -21,7 +28,12 @@ import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 
 import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.hamcrest.Matchers.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -31,6 +43,10 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 @Transactional
 @ActiveProfiles("test")
 public class BookingControllerIntegrationTest {
+    /**
+     * User lookup plus one listing query, independent of page size.
+     */
+    private static final long LISTING_STATEMENT_BUDGET = 2;
 
     @Autowired
     private MockMvc mockMvc;
@@ -47,6 +63,12 @@ public class BookingControllerIntegrationTest {
     @Autowired
     private ObjectMapper objectMapper;
 
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
     private User booker;
     private User owner;
     private Item item;
@@ -113,6 +135,31 @@ public class BookingControllerIntegrationTest {
                 .andExpect(status().isBadRequest());
     }
 
+    @Test
+    void createBooking_shouldReturnBadRequestWhenOverlapsApprovedBooking() throws Exception {
+        mockMvc.perform(patch("/bookings/{bookingId}", booking.getId())
+                        .header("X-Sharer-User-Id", owner.getId())
+                        .param("approved", "true"))
+                .andExpect(status().isOk());
+
+        BookingRequestDto overlapping = new BookingRequestDto(
+                item.getId(),
+                booking.getStart().plusHours(12),
+                booking.getEnd().plusDays(1));
+
+        mockMvc.perform(post("/bookings")
+                        .header("X-Sharer-User-Id", booker.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(overlapping)))
+                .andExpect(status().isBadRequest());
+
+        mockMvc.perform(post("/bookings")
+                        .header("X-Sharer-User-Id", booker.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(bookingRequestDto)))
+                .andExpect(status().isOk());
+    }
+
     @Test
     void approveBooking_shouldApproveBooking() throws Exception {
         mockMvc.perform(patch("/bookings/{bookingId}", booking.getId())
@@ -152,6 +199,153 @@ public class BookingControllerIntegrationTest {
                 .andExpect(jsonPath("$[0].id", is(booking.getId().intValue())));
     }
 
+    @Test
+    void getOwnerBookings_shouldFilterByState() throws Exception {
+        mockMvc.perform(get("/bookings/owner")
+                        .header("X-Sharer-User-Id", owner.getId())
+                        .param("state", "WAITING"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].item.name", is("Item")))
+                .andExpect(jsonPath("$[0].item.description", is("Description")))
+                .andExpect(jsonPath("$[0].item.available", is(true)))
+                .andExpect(jsonPath("$[0].item.owner.email", is("owner@example.com")))
+                .andExpect(jsonPath("$[0].booker.id", is(booker.getId().intValue())))
+                .andExpect(jsonPath("$[0].booker.email", is("booker@example.com")));
+
+        mockMvc.perform(get("/bookings/owner")
+                        .header("X-Sharer-User-Id", owner.getId())
+                        .param("state", "PAST"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(0)));
+
+        mockMvc.perform(get("/bookings")
+                        .header("X-Sharer-User-Id", owner.getId())
+                        .param("state", "ALL"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(0)));
+    }
+
+    @Test
+    void getUserBookings_shouldKeepFromSizeContract() throws Exception {
+        List<Booking> later = saveBookingsStartingAt(booking.getStart().plusDays(1), 4);
+
+        mockMvc.perform(get("/bookings")
+                        .header("X-Sharer-User-Id", booker.getId())
+                        .param("from", "2")
+                        .param("size", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[0].id", is(later.get(1).getId().intValue())))
+                .andExpect(jsonPath("$[1].id", is(later.get(0).getId().intValue())))
+                .andExpect(header().exists("X-Next-Cursor"));
+    }
+
+    @Test
+    void getUserBookings_shouldWalkAllBookingsByCursor() throws Exception {
+        LocalDateTime start = booking.getStart().plusDays(1).withNano(0);
+        saveBookingsStartingAt(start, 3);
+        saveBookingsStartingAt(start, 3);
+
+        List<Long> seen = new ArrayList<>();
+        String cursor = null;
+        do {
+            MockHttpServletRequestBuilder request = get("/bookings")
+                    .header("X-Sharer-User-Id", booker.getId())
+                    .param("size", "3");
+            if (cursor != null) {
+                request.param("cursor", cursor);
+            }
+            MvcResult result = mockMvc.perform(request)
+                    .andExpect(status().isOk())
+                    .andReturn();
+            for (JsonNode node : objectMapper.readTree(result.getResponse().getContentAsString())) {
+                seen.add(node.get("id").asLong());
+            }
+            cursor = result.getResponse().getHeader("X-Next-Cursor");
+        } while (cursor != null);
+
+        assertThat(seen).hasSize(7).doesNotHaveDuplicates();
+        assertThat(seen.get(6)).isEqualTo(booking.getId());
+    }
+
+    @Test
+    void getOwnerBookings_shouldReturnBadRequestForMalformedCursor() throws Exception {
+        mockMvc.perform(get("/bookings/owner")
+                        .header("X-Sharer-User-Id", owner.getId())
+                        .param("cursor", "not-a-cursor"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void bookingEndpoints_shouldStayWithinStatementBudget() throws Exception {
+        saveBookingsStartingAt(booking.getStart().plusDays(1), 20);
+        entityManager.flush();
+
+        assertThat(statementsFor(get("/bookings")
+                .header("X-Sharer-User-Id", booker.getId())
+                .param("size", "20")))
+                .isLessThanOrEqualTo(LISTING_STATEMENT_BUDGET);
+        assertThat(statementsFor(get("/bookings/owner")
+                .header("X-Sharer-User-Id", owner.getId())
+                .param("size", "20")))
+                .isLessThanOrEqualTo(LISTING_STATEMENT_BUDGET);
+        assertThat(statementsFor(get("/bookings/{bookingId}", booking.getId())
+                .header("X-Sharer-User-Id", booker.getId())))
+                .isEqualTo(1);
+    }
+
+    @Test
+    void getBookingsByIds_shouldReturnOnlyVisibleBookingsInOneStatement() throws Exception {
+        User otherUser = userRepository.save(User.builder()
+                .name("Other")
+                .email("other@example.com")
+                .build());
+        Item otherItem = itemRepository.save(Item.builder()
+                .name("Other item")
+                .description("Description")
+                .available(true)
+                .owner(otherUser)
+                .build());
+        Booking hidden = bookingRepository.save(Booking.builder()
+                .start(LocalDateTime.now().plusDays(1))
+                .end(LocalDateTime.now().plusDays(2))
+                .item(otherItem)
+                .booker(owner)
+                .status(BookingStatus.WAITING)
+                .build());
+        entityManager.flush();
+        String ids = hidden.getId() + "," + booking.getId() + "," + (booking.getId() + 1000);
+
+        mockMvc.perform(get("/bookings")
+                        .header("X-Sharer-User-Id", booker.getId())
+                        .param("ids", ids))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].id", is(booking.getId().intValue())))
+                .andExpect(jsonPath("$[0].item.owner.id", is(owner.getId().intValue())));
+        mockMvc.perform(get("/bookings")
+                        .header("X-Sharer-User-Id", owner.getId())
+                        .param("ids", ids))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[*].id",
+                        contains(hidden.getId().intValue(), booking.getId().intValue())));
+        assertThat(statementsFor(get("/bookings")
+                .header("X-Sharer-User-Id", owner.getId())
+                .param("ids", ids)))
+                .isEqualTo(1);
+    }
+
+    @Test
+    void getBookingsByIds_shouldRejectTooManyIds() throws Exception {
+        String ids = String.join(",", Collections.nCopies(101, "1"));
+
+        mockMvc.perform(get("/bookings")
+                        .header("X-Sharer-User-Id", booker.getId())
+                        .param("ids", ids))
+                .andExpect(status().isBadRequest());
+    }
+
     @Test
     void getBooking_shouldReturnForbiddenForNonParticipants() throws Exception {
         User otherUser = userRepository.save(User.builder()
@@ -163,4 +357,105 @@ public class BookingControllerIntegrationTest {
                         .header("X-Sharer-User-Id", otherUser.getId()))
                 .andExpect(status().isForbidden());
     }
-}
\ No newline at end of file
+
+    @Test
+    void exportOwnerBookings_shouldStreamNdjsonNewestFirst() throws Exception {
+        List<Booking> later = saveBookingsStartingAt(booking.getStart().plusDays(1), 2);
+        entityManager.flush();
+        entityManager.clear();
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        MvcResult result = mockMvc.perform(get("/bookings/owner/export")
+                        .header("X-Sharer-User-Id", owner.getId()))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andExpect(header().string("Content-Disposition", "attachment; filename=\"bookings.ndjson\""))
+                .andReturn();
+
+        String body = result.getResponse().getContentAsString();
+        assertThat(body).endsWith("}\n");
+        String[] lines = body.split("\n");
+        assertThat(lines).hasSize(3);
+        List<Long> ids = new ArrayList<>();
+        for (String line : lines) {
+            JsonNode node = objectMapper.readTree(line);
+            assertThat(line).isEqualTo(objectMapper.writeValueAsString(node));
+            assertThat(node.path("booker").path("email").asText()).isEqualTo("booker@example.com");
+            ids.add(node.path("id").asLong());
+        }
+        assertThat(ids).containsExactly(later.get(1).getId(), later.get(0).getId(), booking.getId());
+        assertThat(statistics.getPrepareStatementCount()).isLessThanOrEqualTo(LISTING_STATEMENT_BUDGET);
+        // Only the owner lookup: exported rows are read as tuples, not entities.
+        assertThat(statistics.getEntityLoadCount()).isLessThanOrEqualTo(1);
+    }
+
+    @Test
+    void exportOwnerBookings_shouldWriteCsvWithQuotedFields() throws Exception {
+        item.setName("Drill, \"cordless\"");
+        entityManager.flush();
+        DateTimeFormatter dateTime = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss");
+
+        String csv = mockMvc.perform(get("/bookings/owner/export")
+                        .header("X-Sharer-User-Id", owner.getId())
+                        .param("format", "CSV")
+                        .param("state", "WAITING"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("text/csv;charset=UTF-8"))
+                .andReturn().getResponse().getContentAsString();
+
+        assertThat(csv.split("\r\n")).containsExactly(
+                "id,start,end,status,item_id,item_name,booker_id,booker_name,booker_email",
+                booking.getId() + "," + dateTime.format(booking.getStart()) + "," + dateTime.format(booking.getEnd())
+                        + ",WAITING," + item.getId() + ",\"Drill, \"\"cordless\"\"\"," + booker.getId()
+                        + ",Booker,booker@example.com");
+    }
+
+    @Test
+    void exportOwnerBookings_shouldNeutraliseFormulasInCsv() throws Exception {
+        booker.setName("=HYPERLINK(\"http://example.com\")");
+        item.setName("-2+3");
+        entityManager.flush();
+
+        String csv = mockMvc.perform(get("/bookings/owner/export")
+                        .header("X-Sharer-User-Id", owner.getId())
+                        .param("format", "CSV")
+                        .param("state", "WAITING"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        assertThat(csv.split("\r\n")[1])
+                .contains(",\"'-2+3\",")
+                .contains(",\"'=HYPERLINK(\"\"http://example.com\"\")\",");
+    }
+
+    @Test
+    void exportOwnerBookings_shouldReturnNotFoundForUnknownUser() throws Exception {
+        mockMvc.perform(get("/bookings/owner/export")
+                        .header("X-Sharer-User-Id", 999999L))
+                .andExpect(status().isNotFound())
+                .andExpect(header().doesNotExist("Content-Disposition"));
+    }
+
+    private long statementsFor(MockHttpServletRequestBuilder request) throws Exception {
+        entityManager.clear();
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        mockMvc.perform(request).andExpect(status().isOk());
+        return statistics.getPrepareStatementCount();
+    }
+
+    private List<Booking> saveBookingsStartingAt(LocalDateTime start, int count) {
+        List<Booking> saved = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            saved.add(bookingRepository.save(Booking.builder()
+                    .start(start.plusDays(i))
+                    .end(start.plusDays(i).plusHours(1))
+                    .item(item)
+                    .booker(booker)
+                    .status(BookingStatus.WAITING)
+                    .build()));
+        }
+        return saved;
+    }
+}
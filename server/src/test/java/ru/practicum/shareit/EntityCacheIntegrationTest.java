@@ -0,0 +1,148 @@
+package ru.practicum.shareit;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:entitycache;DB_CLOSE_DELAY=-1;MODE=PostgreSQL")
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+public class EntityCacheIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private Statistics statistics;
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        user = userRepository.save(User.builder()
+                .name("Cached User")
+                .email("cached@example.com")
+                .build());
+        entityManagerFactory.getCache().evictAll();
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @AfterEach
+    void tearDown() {
+        itemRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void getUser_shouldBeServedFromCacheAfterFirstLoad() throws Exception {
+        mockMvc.perform(get("/users/{userId}", user.getId())).andExpect(status().isOk());
+        long firstLoad = statistics.getPrepareStatementCount();
+
+        mockMvc.perform(get("/users/{userId}", user.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.name", is("Cached User")));
+
+        assertThat(firstLoad).isEqualTo(1);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(firstLoad);
+        assertThat(meterRegistry.get("shareit.entity.cache")
+                .tag("region", "User")
+                .tag("result", "hit")
+                .functionCounter()
+                .count()).isGreaterThanOrEqualTo(1);
+    }
+
+    @Test
+    void cacheMetrics_shouldCountWithoutStatistics() throws Exception {
+        double hits = cacheCount("hit");
+        double misses = cacheCount("miss");
+        statistics.setStatisticsEnabled(false);
+        try {
+            mockMvc.perform(get("/users/{userId}", user.getId())).andExpect(status().isOk());
+            mockMvc.perform(get("/users/{userId}", user.getId())).andExpect(status().isOk());
+        } finally {
+            statistics.setStatisticsEnabled(true);
+        }
+
+        assertThat(cacheCount("miss")).isGreaterThan(misses);
+        assertThat(cacheCount("hit")).isGreaterThan(hits);
+    }
+
+    @Test
+    void updateUser_shouldBeVisibleToNextRead() throws Exception {
+        mockMvc.perform(get("/users/{userId}", user.getId())).andExpect(status().isOk());
+
+        mockMvc.perform(patch("/users/{userId}", user.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"Renamed User\"}"))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/users/{userId}", user.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.name", is("Renamed User")));
+    }
+
+    @Test
+    void deleteUser_shouldEvictCachedEntry() throws Exception {
+        mockMvc.perform(get("/users/{userId}", user.getId())).andExpect(status().isOk());
+
+        mockMvc.perform(delete("/users/{userId}", user.getId())).andExpect(status().isNoContent());
+
+        mockMvc.perform(get("/users/{userId}", user.getId())).andExpect(status().isNotFound());
+    }
+
+    @Test
+    void deleteUser_shouldEvictItemsRemovedByCascade() throws Exception {
+        Item item = itemRepository.save(Item.builder()
+                .name("Cached Item")
+                .description("Owned by the cached user")
+                .available(true)
+                .owner(user)
+                .build());
+        entityManagerFactory.getCache().evictAll();
+        assertThat(itemRepository.findById(item.getId())).isPresent();
+        assertThat(entityManagerFactory.getCache().contains(Item.class, item.getId())).isTrue();
+
+        mockMvc.perform(delete("/users/{userId}", user.getId())).andExpect(status().isNoContent());
+
+        assertThat(entityManagerFactory.getCache().contains(Item.class, item.getId())).isFalse();
+        assertThat(itemRepository.findById(item.getId())).isEmpty();
+    }
+
+    private double cacheCount(String result) {
+        return meterRegistry.get("shareit.entity.cache")
+                .tag("region", "User")
+                .tag("result", result)
+                .functionCounter()
+                .count();
+    }
+}
@@ -1,6 +1,10 @@
 package ru.practicum.shareit;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -17,19 +21,27 @@ import ru.practicum.shareit.booking.repository.BookingRepository;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemCreateDto;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.model.Comment;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.CommentRepository;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.service.ItemService;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 
-
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.hamcrest.Matchers.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
-@SpringBootTest
+@SpringBootTest(properties = {
+        "shareit.search.backend=index",
+        "spring.datasource.url=jdbc:h2:mem:items;DB_CLOSE_DELAY=-1;MODE=PostgreSQL"
+})
 @AutoConfigureMockMvc
 @Transactional
 @ActiveProfiles("test")
@@ -47,9 +59,21 @@ public class ItemControllerIntegrationTest {
     @Autowired
     private BookingRepository bookingRepository;
 
+    @Autowired
+    private CommentRepository commentRepository;
+
+    @Autowired
+    private ItemService itemService;
+
     @Autowired
     private ObjectMapper objectMapper;
 
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
     private User owner;
     private User otherUser;
     private Item item;
@@ -69,7 +93,7 @@ public class ItemControllerIntegrationTest {
                 .email("other@example.com")
                 .build());
 
-        item = itemRepository.save(Item.builder()
+        item = itemRepository.saveAndFlush(Item.builder()
                 .name("Item")
                 .description("Description")
                 .available(true)
@@ -107,6 +131,55 @@ public class ItemControllerIntegrationTest {
                 .andExpect(jsonPath("$.name", is("New Item")));
     }
 
+    @Test
+    void addItemsBulk_shouldReportEachRowOfJsonArray() throws Exception {
+        String body = "[{\"name\":\"Drill\",\"description\":\"Cordless\",\"available\":true},"
+                + "{\"name\":\"\",\"description\":\"No name\",\"available\":true},"
+                + "{\"name\":\"Saw\",\"description\":\"Hand saw\",\"available\":\"maybe\"},"
+                + "{\"id\":" + item.getId() + ",\"name\":\"Ladder\",\"description\":\"3 m\",\"available\":false}]";
+
+        mockMvc.perform(post("/items/bulk")
+                        .header("X-Sharer-User-Id", owner.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.received", is(4)))
+                .andExpect(jsonPath("$.created", is(2)))
+                .andExpect(jsonPath("$.failed", is(2)))
+                .andExpect(jsonPath("$.rows[*].row", contains(0, 1, 2, 3)))
+                .andExpect(jsonPath("$.rows[0].id", notNullValue()))
+                .andExpect(jsonPath("$.rows[1].error", is("Item name cannot be empty")))
+                .andExpect(jsonPath("$.rows[2].id", nullValue()))
+                .andExpect(jsonPath("$.rows[2].error", notNullValue()))
+                .andExpect(jsonPath("$.rows[3].id", not(item.getId().intValue())));
+
+        assertThat(itemRepository.findByOwnerId(owner.getId()))
+                .extracting(Item::getName)
+                .containsExactlyInAnyOrder("Item", "Drill", "Ladder");
+    }
+
+    @Test
+    void addItemsBulk_shouldSaveValidRowsOfNdjsonWhenOneIsRejected() throws Exception {
+        String body = "{\"name\":\"Tent\",\"description\":\"Two person\",\"available\":true}\n"
+                + "{\"name\":\"Kayak\",\"description\":\"Single\",\"available\":true,\"requestId\":999999}\n"
+                + "{\"name\":\"Bike\",\"description\":\"Mountain\",\"available\":true}\n";
+
+        mockMvc.perform(post("/items/bulk")
+                        .header("X-Sharer-User-Id", owner.getId())
+                        .contentType(MediaType.APPLICATION_NDJSON)
+                        .content(body))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.created", is(2)))
+                .andExpect(jsonPath("$.failed", is(1)))
+                .andExpect(jsonPath("$.rows[1].error", is("Request with id 999999 not found")));
+
+        mockMvc.perform(post("/items/bulk")
+                        .header("X-Sharer-User-Id", 999999L)
+                        .contentType(MediaType.APPLICATION_NDJSON)
+                        .content(body))
+                .andExpect(status().isNotFound());
+    }
+
     @Test
     void updateItem_shouldUpdateExistingItem() throws Exception {
         mockMvc.perform(patch("/items/{itemId}", item.getId())
@@ -126,6 +199,99 @@ public class ItemControllerIntegrationTest {
                 .andExpect(jsonPath("$.name", is("Item")));
     }
 
+    @Test
+    void getItem_shouldReturnBookingsAndCommentsInOneStatement() throws Exception {
+        User booker = userRepository.save(User.builder()
+                .name("Booker")
+                .email("booker@example.com")
+                .build());
+        LocalDateTime now = LocalDateTime.now();
+        Booking last = saveApprovedBooking(item, booker, now.minusDays(3), now.minusDays(2));
+        saveApprovedBooking(item, booker, now.minusDays(5), now.minusDays(4));
+        Booking next = saveApprovedBooking(item, booker, now.plusDays(1), now.plusDays(2));
+        saveApprovedBooking(item, booker, now.plusDays(3), now.plusDays(4));
+        commentRepository.save(Comment.builder()
+                .text("First")
+                .item(item)
+                .author(booker)
+                .created(now.minusDays(1))
+                .build());
+        commentRepository.save(Comment.builder()
+                .text("Second")
+                .item(item)
+                .author(otherUser)
+                .created(now)
+                .build());
+        entityManager.flush();
+        entityManager.clear();
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        mockMvc.perform(get("/items/{itemId}", item.getId())
+                        .header("X-Sharer-User-Id", owner.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.owner.email", is("owner@example.com")))
+                .andExpect(jsonPath("$.lastBooking.id", is(last.getId().intValue())))
+                .andExpect(jsonPath("$.lastBooking.bookerId", is(booker.getId().intValue())))
+                .andExpect(jsonPath("$.nextBooking.id", is(next.getId().intValue())))
+                .andExpect(jsonPath("$.comments", hasSize(2)))
+                .andExpect(jsonPath("$.comments[0].text", is("First")))
+                .andExpect(jsonPath("$.comments[0].authorName", is("Booker")))
+                .andExpect(jsonPath("$.comments[1].authorName", is("Other User")));
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+
+        mockMvc.perform(get("/items/{itemId}", item.getId())
+                        .header("X-Sharer-User-Id", otherUser.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.lastBooking", nullValue()))
+                .andExpect(jsonPath("$.nextBooking", nullValue()))
+                .andExpect(jsonPath("$.comments", hasSize(2)));
+    }
+
+    @Test
+    void getItems_shouldReturnItemsInRequestedOrderWithOwnBookings() throws Exception {
+        Item otherItem = itemRepository.save(Item.builder()
+                .name("Other item")
+                .description("Description")
+                .available(true)
+                .owner(otherUser)
+                .build());
+        LocalDateTime now = LocalDateTime.now();
+        Booking last = saveApprovedBooking(item, otherUser, now.minusDays(3), now.minusDays(2));
+        Booking next = saveApprovedBooking(item, otherUser, now.plusDays(1), now.plusDays(2));
+        saveApprovedBooking(otherItem, owner, now.minusDays(3), now.minusDays(2));
+        commentRepository.save(Comment.builder()
+                .text("Nice")
+                .item(otherItem)
+                .author(owner)
+                .created(now.minusDays(1))
+                .build());
+        entityManager.flush();
+        entityManager.clear();
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        mockMvc.perform(get("/items")
+                        .header("X-Sharer-User-Id", owner.getId())
+                        .param("ids", otherItem.getId() + "," + (item.getId() + 1000) + "," + item.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[0].id", is(otherItem.getId().intValue())))
+                .andExpect(jsonPath("$[0].lastBooking", nullValue()))
+                .andExpect(jsonPath("$[0].comments[0].text", is("Nice")))
+                .andExpect(jsonPath("$[1].id", is(item.getId().intValue())))
+                .andExpect(jsonPath("$[1].lastBooking.id", is(last.getId().intValue())))
+                .andExpect(jsonPath("$[1].nextBooking.id", is(next.getId().intValue())));
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(3);
+    }
+
+    @Test
+    void getItem_shouldReturnNotFoundForUnknownItem() throws Exception {
+        mockMvc.perform(get("/items/{itemId}", item.getId() + 1000)
+                        .header("X-Sharer-User-Id", owner.getId()))
+                .andExpect(status().isNotFound());
+    }
+
     @Test
     void getOwnerItems_shouldReturnItems() throws Exception {
         mockMvc.perform(get("/items")
@@ -135,6 +301,87 @@ public class ItemControllerIntegrationTest {
                 .andExpect(jsonPath("$[0].id", is(item.getId().intValue())));
     }
 
+    @Test
+    void getOwnerItems_shouldPageItemsWithBookingsAndComments() throws Exception {
+        User booker = userRepository.save(User.builder()
+                .name("Booker")
+                .email("booker@example.com")
+                .build());
+        Item second = itemRepository.save(Item.builder()
+                .name("Second")
+                .description("Second Description")
+                .available(true)
+                .owner(owner)
+                .build());
+        itemRepository.save(Item.builder()
+                .name("Third")
+                .description("Third Description")
+                .available(true)
+                .owner(owner)
+                .build());
+        LocalDateTime now = LocalDateTime.now();
+        saveApprovedBooking(second, booker, now.minusDays(5), now.minusDays(4));
+        Booking last = saveApprovedBooking(second, booker, now.minusDays(1), now.plusDays(1));
+        Booking next = saveApprovedBooking(second, booker, now.plusDays(2), now.plusDays(3));
+        saveApprovedBooking(second, booker, now.plusDays(4), now.plusDays(5));
+        commentRepository.save(Comment.builder()
+                .text("Nice")
+                .item(second)
+                .author(booker)
+                .created(now)
+                .build());
+        entityManager.flush();
+        entityManager.clear();
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        mockMvc.perform(get("/items")
+                        .header("X-Sharer-User-Id", owner.getId())
+                        .param("from", "0")
+                        .param("size", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[0].id", is(item.getId().intValue())))
+                .andExpect(jsonPath("$[0].lastBooking", nullValue()))
+                .andExpect(jsonPath("$[0].comments", hasSize(0)))
+                .andExpect(jsonPath("$[1].id", is(second.getId().intValue())))
+                .andExpect(jsonPath("$[1].owner.email", is("owner@example.com")))
+                .andExpect(jsonPath("$[1].lastBooking.id", is(last.getId().intValue())))
+                .andExpect(jsonPath("$[1].nextBooking.id", is(next.getId().intValue())))
+                .andExpect(jsonPath("$[1].comments[0].authorName", is("Booker")));
+        assertThat(statistics.getPrepareStatementCount()).isLessThanOrEqualTo(4);
+
+        mockMvc.perform(get("/items")
+                        .header("X-Sharer-User-Id", owner.getId())
+                        .param("from", "2")
+                        .param("size", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].name", is("Third")));
+    }
+
+    @Test
+    void addItems_shouldInsertInJdbcBatches() throws Exception {
+        List<ItemDto> itemDtos = new ArrayList<>();
+        for (int i = 0; i < 120; i++) {
+            ItemDto dto = new ItemDto();
+            dto.setName("Bulk " + i);
+            dto.setDescription("Bulk description " + i);
+            dto.setAvailable(true);
+            itemDtos.add(dto);
+        }
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        List<ItemDto> saved = itemService.addItems(owner.getId(), itemDtos);
+        entityManager.flush();
+
+        assertThat(saved).hasSize(120).allSatisfy(dto -> assertThat(dto.getId()).isNotNull());
+        assertThat(statistics.getEntityInsertCount()).isEqualTo(120);
+        // 3 batches of at most 50 rows, plus the sequence calls.
+        assertThat(statistics.getPrepareStatementCount()).isLessThanOrEqualTo(6);
+    }
+
     @Test
     void searchItems_shouldReturnAvailableItems() throws Exception {
         mockMvc.perform(get("/items/search")
@@ -144,6 +391,86 @@ public class ItemControllerIntegrationTest {
                 .andExpect(jsonPath("$[0].id", is(item.getId().intValue())));
     }
 
+    @Test
+    void searchItems_shouldPageResults() throws Exception {
+        for (int i = 1; i <= 3; i++) {
+            itemRepository.save(Item.builder()
+                    .name("Lamp " + i)
+                    .description("Desk lamp")
+                    .available(true)
+                    .owner(owner)
+                    .build());
+        }
+        entityManager.flush();
+
+        mockMvc.perform(get("/items/search")
+                        .param("text", "lamp")
+                        .param("from", "2")
+                        .param("size", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].name", is("Lamp 3")));
+    }
+
+    @Test
+    void searchItems_shouldDropItemsOfDeletedOwner() throws Exception {
+        for (User lampOwner : List.of(otherUser, owner, owner)) {
+            itemRepository.save(Item.builder()
+                    .name("Lamp")
+                    .description("Desk lamp")
+                    .available(true)
+                    .owner(lampOwner)
+                    .build());
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        mockMvc.perform(delete("/users/{userId}", otherUser.getId()))
+                .andExpect(status().isNoContent());
+        entityManager.flush();
+
+        mockMvc.perform(get("/items/search")
+                        .param("text", "lamp")
+                        .param("from", "0")
+                        .param("size", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[0].owner.id", is(owner.getId().intValue())))
+                .andExpect(jsonPath("$[1].owner.id", is(owner.getId().intValue())));
+    }
+
+    @Test
+    void searchItems_shouldFollowItemUpdates() throws Exception {
+        ItemCreateDto rename = new ItemCreateDto();
+        rename.setName("Cordless drill");
+        mockMvc.perform(patch("/items/{itemId}", item.getId())
+                        .header("X-Sharer-User-Id", owner.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(rename)))
+                .andExpect(status().isOk());
+        entityManager.flush();
+
+        mockMvc.perform(get("/items/search")
+                        .param("text", "DRILL"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].name", is("Cordless drill")));
+
+        ItemCreateDto hide = new ItemCreateDto();
+        hide.setAvailable(false);
+        mockMvc.perform(patch("/items/{itemId}", item.getId())
+                        .header("X-Sharer-User-Id", owner.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(hide)))
+                .andExpect(status().isOk());
+        entityManager.flush();
+
+        mockMvc.perform(get("/items/search")
+                        .param("text", "drill"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(0)));
+    }
+
     @Test
     void addComment_shouldCreateNewComment() throws Exception {
         User booker = userRepository.save(User.builder()
@@ -199,4 +526,14 @@ public class ItemControllerIntegrationTest {
                         .content(objectMapper.writeValueAsString(invalidItem)))
                 .andExpect(status().isBadRequest());
     }
-}
\ No newline at end of file
+
+    private Booking saveApprovedBooking(Item item, User booker, LocalDateTime start, LocalDateTime end) {
+        return bookingRepository.save(Booking.builder()
+                .start(start)
+                .end(end)
+                .item(item)
+                .booker(booker)
+                .status(BookingStatus.APPROVED)
+                .build());
+    }
+}
@@ -0,0 +1,91 @@
+package ru.practicum.shareit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+        "shareit.search.backend=database",
+        "spring.datasource.url=jdbc:h2:mem:search;DB_CLOSE_DELAY=-1;MODE=PostgreSQL"
+})
+@AutoConfigureMockMvc
+@Transactional
+@ActiveProfiles("test")
+public class ItemSearchDatabaseIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    private User owner;
+
+    @BeforeEach
+    void setUp() {
+        owner = userRepository.save(User.builder()
+                .name("Owner")
+                .email("owner@example.com")
+                .build());
+    }
+
+    @Test
+    void searchItems_shouldRankNameMatchesFirstAndPage() throws Exception {
+        saveItem("Charger", "Fits any drill", true);
+        saveItem("Hammer drill", "Heavy", true);
+        saveItem("Drill bits", "Set of ten", true);
+        saveItem("Old drill", "Broken", false);
+
+        mockMvc.perform(get("/items/search")
+                        .param("text", "DRILL"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[*].name", contains("Hammer drill", "Drill bits", "Charger")));
+
+        mockMvc.perform(get("/items/search")
+                        .param("text", "drill")
+                        .param("from", "2")
+                        .param("size", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[*].name", contains("Charger")));
+    }
+
+    @Test
+    void searchItems_shouldMatchWildcardsLiterally() throws Exception {
+        saveItem("Saw", "100% steel", true);
+        saveItem("Plane", "1000 steel", true);
+
+        mockMvc.perform(get("/items/search")
+                        .param("text", "0%"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].name", is("Saw")));
+    }
+
+    private void saveItem(String name, String description, boolean available) {
+        itemRepository.save(Item.builder()
+                .name(name)
+                .description(description)
+                .available(available)
+                .owner(owner)
+                .build());
+    }
+}
@@ -0,0 +1,97 @@
+package ru.practicum.shareit;
+
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.search.ItemSearchIndex;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class ItemSearchIndexTest {
+    private static final String[] WORDS = {"Drill", "hammer", "saw", "Ladder", "tent", "bike", "kayak", "дрель",
+            "ПЫЛЕСОС", "a", "ab", "ill"};
+    private static final String[] QUERIES = {"dr", "drill", "ILL", "amm", "e", "ладд", "дрел", "пылес", "xyz",
+            "saw t", "k", "ladder tent", "a"};
+
+    private final ItemSearchIndex index = new ItemSearchIndex(mock(ItemRepository.class));
+
+    @Test
+    void search_shouldMatchSubstringScanAcrossUpdates() {
+        Random random = new Random(7);
+        Map<Long, Item> items = new HashMap<>();
+
+        for (int round = 0; round < 2000; round++) {
+            long id = 1 + random.nextInt(200);
+            Item item = Item.builder()
+                    .id(id)
+                    .name(phrase(random))
+                    .description(phrase(random))
+                    .available(random.nextInt(4) != 0)
+                    .build();
+            if (random.nextInt(10) == 0) {
+                index.remove(item);
+                items.remove(id);
+            } else {
+                index.update(item);
+                items.put(id, item);
+            }
+
+            if (round % 50 == 0) {
+                for (String query : QUERIES) {
+                    assertThat(index.search(query)).isEqualTo(scan(items, query));
+                }
+            }
+        }
+    }
+
+    @Test
+    void rebuild_shouldKeepWritesMadeWhileLoading() {
+        ItemRepository itemRepository = mock(ItemRepository.class);
+        ItemSearchIndex rebuilding = new ItemSearchIndex(itemRepository);
+        Item drill = Item.builder().id(1L).name("Drill").description("Old drill").available(true).build();
+        Item saw = Item.builder().id(2L).name("Saw").description("Hand saw").available(true).build();
+        Item tent = Item.builder().id(3L).name("Tent").description("Two person tent").available(true).build();
+        when(itemRepository.findAll()).thenAnswer(invocation -> {
+            rebuilding.update(Item.builder().id(1L).name("Hammer").description("Claw hammer").available(true).build());
+            rebuilding.remove(saw);
+            rebuilding.update(tent);
+            return List.of(drill, saw);
+        });
+
+        rebuilding.rebuild();
+
+        assertThat(rebuilding.search("drill")).isEmpty();
+        assertThat(rebuilding.search("hammer")).containsExactly(1L);
+        assertThat(rebuilding.search("saw")).isEmpty();
+        assertThat(rebuilding.search("tent")).containsExactly(3L);
+    }
+
+    private static String phrase(Random random) {
+        StringBuilder phrase = new StringBuilder(WORDS[random.nextInt(WORDS.length)]);
+        for (int i = random.nextInt(3); i > 0; i--) {
+            phrase.append(' ').append(WORDS[random.nextInt(WORDS.length)]);
+        }
+        return phrase.toString();
+    }
+
+    private static List<Long> scan(Map<Long, Item> items, String text) {
+        String query = text.toLowerCase(Locale.ROOT);
+        List<Long> ids = new ArrayList<>();
+        items.values().stream()
+                .filter(Item::getAvailable)
+                .filter(item -> item.getName().toLowerCase(Locale.ROOT).contains(query)
+                        || item.getDescription().toLowerCase(Locale.ROOT).contains(query))
+                .forEach(item -> ids.add(item.getId()));
+        ids.sort(null);
+        return ids;
+    }
+}
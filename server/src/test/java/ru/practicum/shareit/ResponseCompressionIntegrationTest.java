@@ -0,0 +1,88 @@
+package ru.practicum.shareit;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.ActiveProfiles;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.io.InputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "spring.datasource.url=jdbc:h2:mem:compression;DB_CLOSE_DELAY=-1;MODE=PostgreSQL")
+@ActiveProfiles("test")
+public class ResponseCompressionIntegrationTest {
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private final HttpClient httpClient = HttpClient.newHttpClient();
+
+    @BeforeEach
+    void setUp() {
+        for (int i = 0; i < 50; i++) {
+            userRepository.save(User.builder()
+                    .name("User " + i)
+                    .email("user" + i + "@example.com")
+                    .build());
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void getUsers_shouldCompressLargeJsonAndStillRevalidate() throws Exception {
+        HttpResponse<InputStream> response = send(HttpRequest.newBuilder(uri("/users"))
+                .header("Accept-Encoding", "gzip"));
+
+        assertThat(response.statusCode()).isEqualTo(200);
+        assertThat(response.headers().firstValue("Content-Encoding")).hasValue("gzip");
+        String etag = response.headers().firstValue("ETag").orElseThrow();
+        assertThat(etag).startsWith("W/");
+        JsonNode users = objectMapper.readTree(new GZIPInputStream(response.body()));
+        assertThat(users.size()).isEqualTo(50);
+
+        HttpResponse<InputStream> revalidated = send(HttpRequest.newBuilder(uri("/users"))
+                .header("Accept-Encoding", "gzip")
+                .header("If-None-Match", etag));
+        assertThat(revalidated.statusCode()).isEqualTo(304);
+    }
+
+    @Test
+    void getUsers_shouldAnswerPlainJsonWithoutAcceptEncoding() throws Exception {
+        HttpResponse<InputStream> response = send(HttpRequest.newBuilder(uri("/users")));
+
+        assertThat(response.headers().firstValue("Content-Encoding")).isEmpty();
+        assertThat(objectMapper.readTree(response.body()).size()).isEqualTo(50);
+    }
+
+    private HttpResponse<InputStream> send(HttpRequest.Builder request) throws Exception {
+        return httpClient.send(request.GET().build(), HttpResponse.BodyHandlers.ofInputStream());
+    }
+
+    private URI uri(String path) {
+        return URI.create("http://localhost:" + port + path);
+    }
+}
@@ -8,6 +8,7 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
@@ -142,6 +143,29 @@ public class UserControllerIntegrationTest {
                 .andExpect(jsonPath("$.email", is(user1.getEmail())));
     }
 
+    @Test
+    void getUser_shouldAnswerMatchingEtagWithNotModified() throws Exception {
+        String etag = mockMvc.perform(get("/users/{userId}", user1.getId()))
+                .andExpect(status().isOk())
+                .andExpect(header().exists(HttpHeaders.ETAG))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(get("/users/{userId}", user1.getId())
+                        .header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+
+        mockMvc.perform(patch("/users/{userId}", user1.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(userCreateDto)))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/users/{userId}", user1.getId())
+                        .header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.name", is(userCreateDto.getName())));
+    }
+
     @Test
     void getUser_shouldReturnNotFoundForNonExistingUser() throws Exception {
         mockMvc.perform(get("/users/999"))
@@ -174,6 +198,16 @@ public class UserControllerIntegrationTest {
                 .andExpect(status().isNotFound());
     }
 
+    @Test
+    void getUsers_shouldReturnRequestedUsersInOrder() throws Exception {
+        mockMvc.perform(get("/users")
+                        .param("ids", user2.getId() + "," + (user2.getId() + 1000) + "," + user1.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[0].email", is("test2@example.com")))
+                .andExpect(jsonPath("$[1].email", is("test1@example.com")));
+    }
+
     @Test
     void deleteUser_shouldReturnNotFoundForNonExistingUser() throws Exception {
         mockMvc.perform(delete("/users/999"))
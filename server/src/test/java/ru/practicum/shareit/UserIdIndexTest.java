@@ -0,0 +1,100 @@
+package ru.practicum.shareit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.user.index.UserIdIndex;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+public class UserIdIndexTest {
+    private final UserRepository userRepository = mock(UserRepository.class);
+    private final UserIdIndex index = new UserIdIndex(userRepository, true);
+
+    @BeforeEach
+    void setUp() {
+        when(userRepository.findAllIds()).thenReturn(List.of(1L, 2L, 5L));
+    }
+
+    @Test
+    void findById_shouldAnswerAbsentIdsWithoutQuery() {
+        index.rebuild();
+
+        assertThat(index.findById(3L)).isEmpty();
+        assertThat(index.findById(0L)).isEmpty();
+        assertThat(index.findById(-7L)).isEmpty();
+        verify(userRepository, never()).findById(anyLong());
+    }
+
+    @Test
+    void findById_shouldQueryKnownAndUnseenIds() {
+        User user = User.builder().id(2L).name("User").email("user@example.com").build();
+        when(userRepository.findById(2L)).thenReturn(Optional.of(user));
+        index.rebuild();
+
+        assertThat(index.findById(2L)).contains(user);
+        assertThat(index.findById(6L)).isEmpty();
+        verify(userRepository).findById(6L);
+    }
+
+    @Test
+    void mightExist_shouldAssumePresenceUntilBuilt() {
+        assertThat(index.mightExist(3L)).isTrue();
+
+        index.add(3L);
+        index.rebuild();
+
+        assertThat(index.mightExist(3L)).isTrue();
+        assertThat(index.mightExist(4L)).isFalse();
+    }
+
+    @Test
+    void remove_shouldWaitForCommit() {
+        index.rebuild();
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            index.remove(2L);
+            assertThat(index.mightExist(2L)).isTrue();
+
+            List<TransactionSynchronization> synchronizations =
+                    TransactionSynchronizationManager.getSynchronizations();
+            synchronizations.forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertThat(index.mightExist(2L)).isFalse();
+    }
+
+    @Test
+    void mightExist_shouldTrackSparseIdsBeyondIntRange() {
+        long farId = 5_000_000_000L;
+        index.rebuild();
+        index.add(farId);
+
+        assertThat(index.mightExist(farId)).isTrue();
+        assertThat(index.mightExist(farId - 1)).isFalse();
+        assertThat(index.mightExist(1_000_000L)).isFalse();
+
+        index.remove(farId);
+
+        assertThat(index.mightExist(farId)).isFalse();
+        assertThat(index.mightExist(2L)).isTrue();
+    }
+
+    @Test
+    void disabledIndex_shouldAlwaysQuery() {
+        UserIdIndex disabled = new UserIdIndex(userRepository, false);
+        disabled.rebuild();
+
+        assertThat(disabled.mightExist(3L)).isTrue();
+        verify(userRepository, never()).findAllIds();
+    }
+}